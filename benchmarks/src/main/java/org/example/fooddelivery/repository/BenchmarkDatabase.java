@@ -0,0 +1,157 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.*;
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.example.fooddelivery.util.SchemaMigrator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded in-memory H2 database in MySQL mode for the benchmarks. It is configured through system
+ * properties, so {@link #start} has to run before anything in the fork reads the configuration.
+ * The data comes from a fixed random seed, so every run of a benchmark sees the same dataset.
+ */
+final class BenchmarkDatabase {
+    static final int RESTAURANTS = 50;
+    static final int PRODUCTS_PER_RESTAURANT = 20;
+    static final int USERS = 500;
+    private static final double PENDING_SHARE = 0.2;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Restaurant> restaurants = new ArrayList<>();
+    private final List<List<Product>> menus = new ArrayList<>();
+    private final Random random = new Random(42);
+
+    private BenchmarkDatabase() {
+    }
+
+    static BenchmarkDatabase start(int orders) {
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        new SchemaMigrator(dbConnection).migrate();
+
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        try (Connection conn = dbConnection.getConnection()) {
+            database.seedCatalog(conn);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to seed the benchmark database", e);
+        }
+        database.seedOrders(orders);
+        return database;
+    }
+
+    static void stop() {
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    int randomUserId() {
+        return users.get(random.nextInt(users.size())).getId();
+    }
+
+    /**
+     * Deletes every order and everything derived from it, so write benchmarks start each
+     * iteration from the same table sizes.
+     */
+    void clearOrders() {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : List.of("order_items", "orders", "daily_sales", "deliverer_earnings", "deliverer_balances")) {
+                stmt.executeUpdate("DELETE FROM " + table);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to clear the benchmark orders", e);
+        }
+    }
+
+    int randomRestaurantId() {
+        return restaurants.get(random.nextInt(restaurants.size())).getId();
+    }
+
+    /**
+     * An unsaved order for a random user and restaurant with one to four items.
+     */
+    Order newOrder(String status, LocalDateTime orderDate) {
+        int restaurantIndex = random.nextInt(restaurants.size());
+        List<Product> menu = menus.get(restaurantIndex);
+        List<OrderItem> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem(0, 0, menu.get(random.nextInt(menu.size())), 1 + random.nextInt(3)));
+        }
+        return new Order(0, users.get(random.nextInt(users.size())), restaurants.get(restaurantIndex),
+                items, orderDate, status);
+    }
+
+    private void seedCatalog(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= USERS; id++) {
+                User user = new User(id, "user" + id, "password", User.UserRole.CLIENT);
+                stmt.setInt(1, id);
+                stmt.setString(2, user.getUsername());
+                stmt.setString(3, user.getPassword());
+                stmt.setString(4, user.getRole().toString());
+                stmt.addBatch();
+                users.add(user);
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement restaurantStmt = conn.prepareStatement(
+                     "INSERT INTO restaurants (id, name, address, phone) VALUES (?, ?, ?, ?)");
+             PreparedStatement productStmt = conn.prepareStatement(
+                     "INSERT INTO products (id, name, description, price, restaurant_id) VALUES (?, ?, ?, ?, ?)")) {
+            int productId = 1;
+            for (int id = 1; id <= RESTAURANTS; id++) {
+                Restaurant restaurant = new Restaurant(id, "Restaurant " + id, "Street " + id, "555-" + id);
+                restaurantStmt.setInt(1, id);
+                restaurantStmt.setString(2, restaurant.getName());
+                restaurantStmt.setString(3, restaurant.getAddress());
+                restaurantStmt.setString(4, restaurant.getPhone());
+                restaurantStmt.addBatch();
+                restaurants.add(restaurant);
+
+                List<Product> menu = new ArrayList<>();
+                for (int i = 0; i < PRODUCTS_PER_RESTAURANT; i++, productId++) {
+                    BigDecimal price = BigDecimal.valueOf(300 + random.nextInt(2000), 2);
+                    Product product = new Product(productId, "Dish " + productId, price, "Dish number " + productId, restaurant);
+                    productStmt.setInt(1, productId);
+                    productStmt.setString(2, product.getName());
+                    productStmt.setString(3, product.getDescription());
+                    productStmt.setBigDecimal(4, price);
+                    productStmt.setInt(5, id);
+                    productStmt.addBatch();
+                    menu.add(product);
+                }
+                menus.add(menu);
+            }
+            restaurantStmt.executeBatch();
+            productStmt.executeBatch();
+        }
+    }
+
+    private void seedOrders(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String status = random.nextDouble() < PENDING_SHARE ? "PENDING" : "DELIVERED";
+            orders.add(newOrder(status, now.minusMinutes(random.nextInt(90 * 24 * 60))));
+        }
+        int created = new JdbcOrderRepository().createOrders(orders);
+        if (created != count) {
+            throw new IllegalStateException("Seeded " + created + " of " + count + " orders");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.User;
+import org.example.fooddelivery.util.SessionStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second at different PBKDF2 iteration counts, against checking a session token, which
+ * is what every request after the login pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+    private static final String USERNAME = "benchmark-login";
+    private static final String PASSWORD = "benchmark1";
+
+    @Param({"10000", "100000", "310000", "600000"})
+    public int iterations;
+
+    private UserRepository repository;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("security.password.iterations", String.valueOf(iterations));
+        BenchmarkDatabase.start(0);
+        repository = new JdbcUserRepository();
+        if (!repository.registerUser(new User(0, USERNAME, PASSWORD, User.UserRole.CLIENT))) {
+            throw new IllegalStateException("Could not register the benchmark user");
+        }
+        token = SessionStore.getInstance().create(repository.authenticate(USERNAME, PASSWORD));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public User login() {
+        return repository.authenticate(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public User validateSession() {
+        return SessionStore.getInstance().get(token);
+    }
+}
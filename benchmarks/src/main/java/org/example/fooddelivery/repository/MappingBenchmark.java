@@ -0,0 +1,92 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Order;
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping on its own. {@code mapResultSetToProduct} reads from an in-memory result set, so
+ * no I/O is measured; {@code mapTempOrdersToOrders} is the graph loader behind every order list
+ * and includes its three batch queries. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    private static final int PRODUCT_ROWS = 100;
+
+    @Param({"20", "500"})
+    public int batchSize;
+
+    private SimpleResultSet productRows;
+    private OrderGraphLoader graphLoader;
+    private List<JdbcOrderRepository.OrderTemp> tempOrders;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        productRows = new SimpleResultSet();
+        productRows.setAutoClose(false);
+        productRows.addColumn("id", Types.INTEGER, 10, 0);
+        productRows.addColumn("name", Types.VARCHAR, 100, 0);
+        productRows.addColumn("description", Types.VARCHAR, 500, 0);
+        productRows.addColumn("price", Types.DECIMAL, 10, 2);
+        productRows.addColumn("restaurant_id", Types.INTEGER, 10, 0);
+        productRows.addColumn("restaurant_name", Types.VARCHAR, 100, 0);
+        for (int i = 1; i <= PRODUCT_ROWS; i++) {
+            productRows.addRow(i, "Dish " + i, "Dish number " + i, BigDecimal.valueOf(999 + i, 2), i % 10, "Restaurant " + i % 10);
+        }
+
+        BenchmarkDatabase.start(batchSize * 2);
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        graphLoader = new OrderGraphLoader(dbConnection);
+        tempOrders = new ArrayList<>();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT id, user_id, restaurant_id, status, order_date, total, version FROM orders ORDER BY id LIMIT ?")) {
+            stmt.setInt(1, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tempOrders.add(new JdbcOrderRepository.OrderTemp(rs.getInt("id"), rs.getInt("user_id"),
+                            rs.getInt("restaurant_id"), rs.getString("status"),
+                            rs.getTimestamp("order_date").toLocalDateTime(), rs.getBigDecimal("total"),
+                            rs.getInt("version")));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Product> mapResultSetToProduct() throws SQLException {
+        productRows.beforeFirst();
+        List<Product> products = new ArrayList<>(PRODUCT_ROWS);
+        while (productRows.next()) {
+            products.add(JdbcProductRepository.mapResultSetToProduct(productRows));
+        }
+        return products;
+    }
+
+    @Benchmark
+    public List<Order> mapTempOrdersToOrders() {
+        return graphLoader.load(tempOrders);
+    }
+}
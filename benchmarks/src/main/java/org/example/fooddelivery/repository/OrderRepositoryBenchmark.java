@@ -0,0 +1,58 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Order;
+import org.example.fooddelivery.model.OrderSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order reads and writes end to end: SQL, the pool and statement cache, and graph loading.
+ * {@code createOrder} grows the table as it runs, which is why each benchmark gets its own fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRepositoryBenchmark {
+    @Param({"1000", "10000"})
+    public int orders;
+
+    private BenchmarkDatabase database;
+    private OrderRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(orders);
+        repository = new JdbcOrderRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByStatus() {
+        return repository.getOrdersByStatus("PENDING");
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByUserId() {
+        return repository.getOrdersByUserId(database.randomUserId());
+    }
+
+    @Benchmark
+    public List<OrderSummary> getOrderSummariesByUserId() {
+        return repository.getOrderSummariesByUserId(database.randomUserId());
+    }
+
+    @Benchmark
+    public boolean createOrder() {
+        return repository.createOrder(database.newOrder("PENDING", LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing an order's items, which replaced the console's {@code calculateOrderTotal} and still
+ * runs for every order that has not been stored yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Restaurant restaurant = new Restaurant(1, "Restaurant", "Street", "555");
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            Product product = new Product(i, "Dish " + i, BigDecimal.valueOf(999 + i, 2), "Dish", restaurant);
+            orderItems.add(new OrderItem(i, 1, product, 1 + i % 3));
+        }
+        order = new Order(1, new User(1, "user", "password", User.UserRole.CLIENT), restaurant,
+                orderItems, LocalDateTime.now(), "PENDING");
+    }
+
+    @Benchmark
+    public BigDecimal calculateItemsTotal() {
+        return order.calculateItemsTotal();
+    }
+}
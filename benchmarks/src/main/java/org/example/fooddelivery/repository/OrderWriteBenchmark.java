@@ -0,0 +1,70 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to store a batch of orders: {@code createOrders} writes the batch in multi-row inserts with
+ * one commit per thousand orders, {@code createOrderEach} stores the same orders one call (and
+ * one transaction) at a time. The orders table is emptied after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderWriteBenchmark {
+    @Param({"1", "100", "10000"})
+    public int batchSize;
+
+    private BenchmarkDatabase database;
+    private OrderRepository repository;
+    private List<Order> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(0);
+        repository = new JdbcOrderRepository();
+    }
+
+    @Setup(Level.Invocation)
+    public void newBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(database.newOrder("DELIVERED", now));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearOrders() {
+        database.clearOrders();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public int createOrders() {
+        return repository.createOrders(batch);
+    }
+
+    @Benchmark
+    public int createOrderEach() {
+        int created = 0;
+        for (Order order : batch) {
+            if (repository.createOrder(order)) {
+                created++;
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu lookups with the catalog cache on, and with a zero TTL so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductRepositoryBenchmark {
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private BenchmarkDatabase database;
+    private ProductRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!cached) {
+            System.setProperty("cache.catalog.ttlSeconds", "0");
+        }
+        database = BenchmarkDatabase.start(0);
+        repository = new JdbcProductRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Product> getProductsByRestaurantId() {
+        return repository.getProductsByRestaurantId(database.randomRestaurantId());
+    }
+}
@@ -4,25 +4,43 @@ import org.example.fooddelivery.model.*;
 import org.example.fooddelivery.repository.*;
 import org.example.fooddelivery.util.*;
 import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.dispatch.PendingOrder;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.metrics.ActionScope;
+import org.example.fooddelivery.metrics.RepositoryCallStats;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.metrics.UserActionEvent;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 public class ConsoleApplication {
+    private static final int TOP_QUERY_SHAPES = 10;
+    private static final String CHANNEL = "console";
+
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final AsyncRestaurantRepository asyncRestaurantRepository;
+    private final AsyncProductRepository asyncProductRepository;
+    private final AsyncOrderRepository asyncOrderRepository;
     private User currentUser;
 
     public ConsoleApplication() {
-        this.userRepository = new UserRepository();
-        this.restaurantRepository = new RestaurantRepository();
-        this.productRepository = new ProductRepository();
-        this.orderRepository = new OrderRepository();
+        RepositoryFactory repositories = RepositoryFactory.getInstance();
+        this.userRepository = repositories.getUserRepository();
+        this.restaurantRepository = repositories.getRestaurantRepository();
+        this.productRepository = repositories.getProductRepository();
+        this.orderRepository = repositories.getOrderRepository();
+        this.asyncRestaurantRepository = new AsyncRestaurantRepository(restaurantRepository);
+        this.asyncProductRepository = new AsyncProductRepository(productRepository);
+        this.asyncOrderRepository = new AsyncOrderRepository(orderRepository);
     }
 
     public void start() {
@@ -46,10 +64,10 @@ public class ConsoleApplication {
 
         switch (ConsoleUtils.readChoice(1, 3)) {
             case 1:
-                login();
+                runAction("login", this::login);
                 break;
             case 2:
-                register();
+                runAction("register", this::register);
                 break;
             case 3:
                 System.out.println("\nGoodbye!");
@@ -130,13 +148,13 @@ public class ConsoleApplication {
 
         switch (ConsoleUtils.readChoice(1, 4)) {
             case 1:
-                viewRestaurants();
+                runAction("viewRestaurants", this::viewRestaurants);
                 break;
             case 2:
-                placeOrder();
+                runAction("placeOrder", this::placeOrder);
                 break;
             case 3:
-                viewMyOrders();
+                runAction("viewMyOrders", this::viewMyOrders);
                 break;
             case 4:
                 logout();
@@ -150,10 +168,11 @@ public class ConsoleApplication {
                 "Manage Products",
                 "View Orders",
                 "Generate Reports",
+                "System Metrics",
                 "Logout"
         );
 
-        switch (ConsoleUtils.readChoice(1, 5)) {
+        switch (ConsoleUtils.readChoice(1, 6)) {
             case 1:
                 manageRestaurants();
                 break;
@@ -161,12 +180,15 @@ public class ConsoleApplication {
                 manageProducts();
                 break;
             case 3:
-                viewAllOrders();
+                runAction("viewAllOrders", this::viewAllOrders);
                 break;
             case 4:
                 generateReports();
                 break;
             case 5:
+                runAction("showSystemMetrics", this::showSystemMetrics);
+                break;
+            case 6:
                 logout();
                 break;
         }
@@ -182,13 +204,13 @@ public class ConsoleApplication {
 
         switch (ConsoleUtils.readChoice(1, 4)) {
             case 1:
-                viewAvailableOrders();
+                runAction("viewAvailableOrders", this::viewAvailableOrders);
                 break;
             case 2:
-                viewMyDeliveries();
+                runAction("viewMyDeliveries", this::viewMyDeliveries);
                 break;
             case 3:
-                viewEarnings();
+                runAction("viewEarnings", this::viewEarnings);
                 break;
             case 4:
                 logout();
@@ -218,14 +240,16 @@ public class ConsoleApplication {
         viewRestaurants();
 
         int restaurantId = ConsoleUtils.readChoice(1, restaurantRepository.getAllRestaurants().size());
-        Restaurant restaurant = restaurantRepository.getRestaurantById(restaurantId);
+        CompletableFuture<Restaurant> restaurantLookup = asyncRestaurantRepository.getRestaurantById(restaurantId);
+        CompletableFuture<List<Product>> productsLookup = asyncProductRepository.getProductsByRestaurantId(restaurantId);
+        Restaurant restaurant = restaurantLookup.join();
 
         if (restaurant == null) {
             ConsoleUtils.printError("Restaurant not found!");
             return;
         }
 
-        List<Product> products = productRepository.getProductsByRestaurantId(restaurantId);
+        List<Product> products = productsLookup.join();
         List<OrderItem> orderItems = new ArrayList<>();
 
         while (true) {
@@ -268,7 +292,7 @@ public class ConsoleApplication {
 
     private void viewMyOrders() {
         ConsoleUtils.printHeader("My Orders");
-        List<Order> orders = orderRepository.getOrdersByUserId(currentUser.getId());
+        List<OrderSummary> orders = orderRepository.getOrderSummariesByUserId(currentUser.getId());
 
         if (orders.isEmpty()) {
             System.out.println("No orders found.");
@@ -276,14 +300,15 @@ public class ConsoleApplication {
             return;
         }
 
-        ConsoleUtils.printTableHeader("ID", "Restaurant", "Status", "Date", "Total");
-        for (Order order : orders) {
+        ConsoleUtils.printTableHeader("ID", "Restaurant", "Status", "Date", "Items", "Total");
+        for (OrderSummary order : orders) {
             ConsoleUtils.printTableRow(
-                    String.valueOf(order.getId()),
-                    order.getRestaurant().getName(),
-                    order.getStatus(),
-                    order.getOrderDate().toString(),
-                    calculateOrderTotal(order).toString()
+                    String.valueOf(order.id()),
+                    order.restaurantName(),
+                    order.status(),
+                    order.orderDate().toString(),
+                    String.valueOf(order.itemCount()),
+                    order.total().toString()
             );
         }
         ConsoleUtils.printTableFooter();
@@ -303,16 +328,16 @@ public class ConsoleApplication {
 
             switch (ConsoleUtils.readChoice(1, 5)) {
                 case 1:
-                    viewRestaurants();
+                    runAction("viewRestaurants", this::viewRestaurants);
                     break;
                 case 2:
-                    addRestaurant();
+                    runAction("addRestaurant", this::addRestaurant);
                     break;
                 case 3:
-                    editRestaurant();
+                    runAction("editRestaurant", this::editRestaurant);
                     break;
                 case 4:
-                    deleteRestaurant();
+                    runAction("deleteRestaurant", this::deleteRestaurant);
                     break;
                 case 5:
                     return;
@@ -333,16 +358,16 @@ public class ConsoleApplication {
 
             switch (ConsoleUtils.readChoice(1, 5)) {
                 case 1:
-                    viewAllProducts();
+                    runAction("viewAllProducts", this::viewAllProducts);
                     break;
                 case 2:
-                    addProduct();
+                    runAction("addProduct", this::addProduct);
                     break;
                 case 3:
-                    editProduct();
+                    runAction("editProduct", this::editProduct);
                     break;
                 case 4:
-                    deleteProduct();
+                    runAction("deleteProduct", this::deleteProduct);
                     break;
                 case 5:
                     return;
@@ -352,26 +377,35 @@ public class ConsoleApplication {
 
     private void viewAllOrders() {
         ConsoleUtils.printHeader("All Orders");
-        List<Order> orders = orderRepository.getAllOrders();
+        int pageSize = AppConfig.getInstance().getOrderPageSize();
+        OrderSummaryPage page = orderRepository.getOrderSummariesPage(null, pageSize);
 
-        if (orders.isEmpty()) {
+        if (page.orders().isEmpty()) {
             System.out.println("No orders found.");
             ConsoleUtils.waitForEnter();
             return;
         }
 
-        ConsoleUtils.printTableHeader("ID", "User", "Restaurant", "Status", "Date", "Total");
-        for (Order order : orders) {
-            ConsoleUtils.printTableRow(
-                    String.valueOf(order.getId()),
-                    order.getUser().getUsername(),
-                    order.getRestaurant().getName(),
-                    order.getStatus(),
-                    order.getOrderDate().toString(),
-                    calculateOrderTotal(order).toString()
-            );
+        while (true) {
+            ConsoleUtils.printTableHeader("ID", "User", "Restaurant", "Status", "Date", "Items", "Total");
+            for (OrderSummary order : page.orders()) {
+                ConsoleUtils.printTableRow(
+                        String.valueOf(order.id()),
+                        order.customerName(),
+                        order.restaurantName(),
+                        order.status(),
+                        order.orderDate().toString(),
+                        String.valueOf(order.itemCount()),
+                        order.total().toString()
+                );
+            }
+            ConsoleUtils.printTableFooter();
+
+            if (!page.hasMore() || !ConsoleUtils.readBoolean("Show next page?")) {
+                break;
+            }
+            page = orderRepository.getOrderSummariesPage(page.nextCursor(), pageSize);
         }
-        ConsoleUtils.printTableFooter();
         ConsoleUtils.waitForEnter();
     }
 
@@ -386,13 +420,13 @@ public class ConsoleApplication {
 
         switch (ConsoleUtils.readChoice(1, 4)) {
             case 1:
-                generateDailySalesReport();
+                runAction("generateDailySalesReport", this::generateDailySalesReport);
                 break;
             case 2:
-                generateMonthlySalesReport();
+                runAction("generateMonthlySalesReport", this::generateMonthlySalesReport);
                 break;
             case 3:
-                generatePopularProductsReport();
+                runAction("generatePopularProductsReport", this::generatePopularProductsReport);
                 break;
             case 4:
                 return;
@@ -401,7 +435,11 @@ public class ConsoleApplication {
 
     private void viewAvailableOrders() {
         ConsoleUtils.printHeader("Available Orders");
-        List<Order> orders = orderRepository.getOrdersByStatus("PENDING");
+        DispatchQueue dispatchQueue = DispatchQueue.getInstance();
+        // other console processes place orders too; their events never reach this queue
+        long readStartedNanos = System.nanoTime();
+        dispatchQueue.resync(orderRepository.getPendingOrders(), readStartedNanos);
+        List<PendingOrder> orders = dispatchQueue.peek(AppConfig.getInstance().getDispatchOfferSize());
 
         if (orders.isEmpty()) {
             System.out.println("No available orders found.");
@@ -411,25 +449,25 @@ public class ConsoleApplication {
 
         ConsoleUtils.printTableHeader("No", "ID", "Restaurant", "Items", "Total");
         int index = 1;
-        for (Order order : orders) {
+        for (PendingOrder order : orders) {
             ConsoleUtils.printTableRow(
                     String.valueOf(index++),
-                    String.valueOf(order.getId()),
-                    order.getRestaurant().getName(),
-                    String.valueOf(order.getItems().size()),
-                    calculateOrderTotal(order).toString()
+                    String.valueOf(order.orderId()),
+                    order.restaurantName(),
+                    String.valueOf(order.itemCount()),
+                    order.total().toString()
             );
         }
         ConsoleUtils.printTableFooter();
 
         if (ConsoleUtils.readBoolean("Accept an order?")) {
             int selectedIndex = ConsoleUtils.readChoice(1, orders.size());
-            Order selectedOrder = orders.get(selectedIndex - 1);
+            PendingOrder selectedOrder = orders.get(selectedIndex - 1);
 
-            if (orderRepository.updateOrderStatus(selectedOrder.getId(), "DELIVERED", currentUser.getId())) {
+            if (orderRepository.claimOrder(selectedOrder.orderId(), selectedOrder.version(), currentUser.getId())) {
                 ConsoleUtils.printSuccess("Order accepted successfully!");
             } else {
-                ConsoleUtils.printError("Failed to accept order!");
+                ConsoleUtils.printError("Order is no longer available - another deliverer may have accepted it.");
             }
         }
 
@@ -440,7 +478,7 @@ public class ConsoleApplication {
 
     private void viewMyDeliveries() {
         ConsoleUtils.printHeader("My Deliveries");
-        List<Order> deliveries = orderRepository.getDeliveriesByDelivererId(currentUser.getId());
+        List<OrderSummary> deliveries = orderRepository.getDeliverySummariesByDelivererId(currentUser.getId());
 
         if (deliveries.isEmpty()) {
             System.out.println("No deliveries found.");
@@ -448,14 +486,15 @@ public class ConsoleApplication {
             return;
         }
 
-        ConsoleUtils.printTableHeader("ID", "Restaurant", "Status", "Date", "Total");
-        for (Order delivery : deliveries) {
+        ConsoleUtils.printTableHeader("ID", "Restaurant", "Status", "Date", "Items", "Total");
+        for (OrderSummary delivery : deliveries) {
             ConsoleUtils.printTableRow(
-                    String.valueOf(delivery.getId()),
-                    delivery.getRestaurant().getName(),
-                    delivery.getStatus(),
-                    delivery.getOrderDate().toString(),
-                    calculateOrderTotal(delivery).toString()
+                    String.valueOf(delivery.id()),
+                    delivery.restaurantName(),
+                    delivery.status(),
+                    delivery.orderDate().toString(),
+                    String.valueOf(delivery.itemCount()),
+                    delivery.total().toString()
             );
         }
         ConsoleUtils.printTableFooter();
@@ -464,11 +503,44 @@ public class ConsoleApplication {
 
     private void viewEarnings() {
         ConsoleUtils.printHeader("My Earnings");
-        BigDecimal totalEarnings = orderRepository.calculateDelivererEarnings(currentUser.getId());
-        System.out.println("Total earnings: $" + totalEarnings);
+        LocalDate today = LocalDate.now();
+        LocalDate firstOfMonth = today.withDayOfMonth(1);
+        CompletableFuture<BigDecimal> todayEarnings = asyncOrderRepository.calculateDelivererEarnings(
+                currentUser.getId(), today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        CompletableFuture<BigDecimal> monthEarnings = asyncOrderRepository.calculateDelivererEarnings(
+                currentUser.getId(), firstOfMonth.atStartOfDay(), firstOfMonth.plusMonths(1).atStartOfDay());
+        CompletableFuture<BigDecimal> totalEarnings = asyncOrderRepository.calculateDelivererEarnings(currentUser.getId());
+        System.out.println("Today: $" + todayEarnings.join());
+        System.out.println("This month: $" + monthEarnings.join());
+        System.out.println("Total earnings: $" + totalEarnings.join());
         ConsoleUtils.waitForEnter();
     }
 
+    /**
+     * Runs a menu action as a {@link UserActionEvent}, so Flight Recorder shows each screen the
+     * user opened and how long it stayed open, inside an {@link ActionScope} that checks its
+     * database round trips against the budget.
+     */
+    private void runAction(String action, Runnable body) {
+        UserActionEvent event = new UserActionEvent(CHANNEL, action,
+                currentUser != null ? currentUser.getId() : 0,
+                currentUser != null ? currentUser.getRole().name() : null);
+        event.begin();
+        String outcome = "failed";
+        try {
+            try (ActionScope scope = ActionScope.open(action)) {
+                body.run();
+                event.setRoundTrips(scope.getRoundTrips());
+            }
+            outcome = "ok";
+        } finally {
+            if (event.shouldCommit()) {
+                event.setOutcome(outcome);
+                event.commit();
+            }
+        }
+    }
+
     private void logout() {
         if (ConsoleUtils.readBoolean("Are you sure you want to logout?")) {
             currentUser = null;
@@ -477,14 +549,6 @@ public class ConsoleApplication {
         }
     }
 
-    private BigDecimal calculateOrderTotal(Order order) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (OrderItem item : order.getItems()) {
-            total = total.add(item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
-        }
-        return total;
-    }
-
     private void addRestaurant() {
         ConsoleUtils.printHeader("Add Restaurant");
         String name = ConsoleUtils.readLine("Name: ");
@@ -629,56 +693,87 @@ public class ConsoleApplication {
     private void generateDailySalesReport() {
         ConsoleUtils.printHeader("Daily Sales Report");
         LocalDate date = LocalDate.now();
-        List<Order> orders = orderRepository.getOrdersByDate(date);
-        printSalesReport(orders, "Daily Sales Report - " + date);
+        List<SalesReportRow> rows = orderRepository.getSalesByRestaurant(date, date.plusDays(1));
+        printSalesReport(rows, "Daily Sales Report - " + date, "Restaurant");
     }
 
     private void generateMonthlySalesReport() {
         ConsoleUtils.printHeader("Monthly Sales Report");
         LocalDate date = LocalDate.now().withDayOfMonth(1);
-        List<Order> orders = orderRepository.getOrdersByMonth(date);
-        printSalesReport(orders, "Monthly Sales Report - " + date.getMonth() + " " + date.getYear());
+        List<SalesReportRow> rows = orderRepository.getSalesByDay(date, date.plusMonths(1));
+        printSalesReport(rows, "Monthly Sales Report - " + date.getMonth() + " " + date.getYear(), "Day");
     }
 
     private void generatePopularProductsReport() {
         ConsoleUtils.printHeader("Popular Products Report");
-        List<Product> products = productRepository.getPopularProducts();
+        int limit = AppConfig.getInstance().getIntProperty("reports.popularProducts.limit", 10);
+        List<ProductSales> popular = productRepository.getPopularProductSales(limit, null, null, null);
 
         ConsoleUtils.printTableHeader("ID", "Name", "Total Orders", "Revenue");
-        for (Product product : products) {
+        for (ProductSales sales : popular) {
             ConsoleUtils.printTableRow(
-                    String.valueOf(product.getId()),
-                    product.getName(),
-                    String.valueOf(orderRepository.getProductOrderCount(product.getId())),
-                    orderRepository.getProductRevenue(product.getId()).toString()
+                    String.valueOf(sales.product().getId()),
+                    sales.product().getName(),
+                    String.valueOf(sales.orderCount()),
+                    sales.deliveredRevenue().toString()
             );
         }
         ConsoleUtils.printTableFooter();
         ConsoleUtils.waitForEnter();
     }
 
-    private void printSalesReport(List<Order> orders, String title) {
+    private void showSystemMetrics() {
+        ConsoleUtils.printHeader("System Metrics");
+        List<RepositoryCallStats> repositoryStats = RepositoryMetrics.getStats();
+        if (repositoryStats.isEmpty()) {
+            System.out.println("Repository metrics are disabled (metrics.repositories.enabled).");
+        }
+        for (RepositoryCallStats stats : repositoryStats) {
+            if (stats.calls() > 0) {
+                System.out.println(stats);
+            }
+        }
+
+        List<QueryStats> queryStats = DatabaseConnection.getInstance().getQueryStats();
+        if (!queryStats.isEmpty()) {
+            System.out.println("\nSQL by total time:");
+            queryStats.stream().limit(TOP_QUERY_SHAPES).forEach(System.out::println);
+        }
+
+        System.out.println();
+        PoolStats poolStats = DatabaseConnection.getInstance().getPoolStats();
+        if (poolStats != null) {
+            System.out.println("Connection pool: " + poolStats);
+        }
+        CatalogCache.getStats().forEach(stats -> System.out.println("Cache " + stats));
+        EventBus.getInstance().getStats().forEach(stats -> System.out.println("Event subscriber " + stats));
+        System.out.println("Dispatch queue: " + DispatchQueue.getInstance().size() + " pending order(s)");
+        ConsoleUtils.waitForEnter();
+    }
+
+    private void printSalesReport(List<SalesReportRow> rows, String title, String groupColumn) {
         ConsoleUtils.printHeader(title);
 
-        if (orders.isEmpty()) {
+        if (rows.isEmpty()) {
             System.out.println("No orders found for this period.");
             ConsoleUtils.waitForEnter();
             return;
         }
 
         BigDecimal totalRevenue = BigDecimal.ZERO;
-        int totalOrders = orders.size();
+        int totalOrders = 0;
 
-        ConsoleUtils.printTableHeader("ID", "Restaurant", "Items", "Total");
-        for (Order order : orders) {
-            BigDecimal orderTotal = calculateOrderTotal(order);
-            totalRevenue = totalRevenue.add(orderTotal);
+        ConsoleUtils.printTableHeader(groupColumn, "Orders", "Items", "Revenue", "Delivered Revenue");
+        for (SalesReportRow row : rows) {
+            totalRevenue = totalRevenue.add(row.revenue());
+            totalOrders += row.orderCount();
 
             ConsoleUtils.printTableRow(
-                    String.valueOf(order.getId()),
-                    order.getRestaurant().getName(),
-                    String.valueOf(order.getItems().size()),
-                    orderTotal.toString()
+                    row.label(),
+                    String.valueOf(row.orderCount()),
+                    String.valueOf(row.itemCount()),
+                    row.revenue().toString(),
+                    row.deliveredRevenue().toString()
             );
         }
         ConsoleUtils.printTableFooter();
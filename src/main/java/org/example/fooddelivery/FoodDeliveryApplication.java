@@ -1,17 +1,42 @@
 package org.example.fooddelivery;
 
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.dispatch.DispatchUpdater;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.repository.CatalogCache;
+import org.example.fooddelivery.repository.RepositoryFactory;
+import org.example.fooddelivery.server.HttpApiServer;
+import org.example.fooddelivery.util.AsyncExecutor;
 import org.example.fooddelivery.util.DatabaseConnection;
+import org.example.fooddelivery.util.SchemaMigrator;
 
+/**
+ * Starts the interactive console, or with {@code --server [port]} the HTTP API instead.
+ */
 public class FoodDeliveryApplication {
+    private static DispatchUpdater dispatchUpdater;
+
     public static void main(String[] args) {
+        boolean serverMode = args.length > 0 && args[0].equals("--server");
         try {
-            System.out.println("Initializing database...");
-            DatabaseConnection dbConnection = DatabaseConnection.getInstance();
-            if (dbConnection.testConnection()) {
-                System.out.println("Database connection successful!");
-            } else {
-                System.err.println("Failed to connect to the database.");
-                System.exit(1);
+            initialize();
+            HttpApiServer server = null;
+            if (serverMode) {
+                int port = args.length > 1 ? Integer.parseInt(args[1]) : AppConfig.getInstance().getServerPort();
+                server = new HttpApiServer(port);
+            }
+            HttpApiServer runningServer = server;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (runningServer != null) {
+                    runningServer.stop(AppConfig.getInstance().getServerShutdownGraceSeconds());
+                }
+                shutdown();
+            }));
+            if (server != null) {
+                server.start();
+                System.out.println("HTTP API listening on port " + server.getPort() + ". Press Ctrl+C to stop.");
+                return;
             }
             ConsoleApplication app = new ConsoleApplication();
             app.start();
@@ -21,4 +46,59 @@ public class FoodDeliveryApplication {
             System.exit(1);
         }
     }
+
+    /**
+     * Checks the database and applies pending migrations (unless the memory backend is configured),
+     * then loads the dispatch queue. Shared by the console, the HTTP server and the load generator.
+     */
+    public static void initialize() {
+        RepositoryFactory repositories = RepositoryFactory.getInstance();
+        if (repositories.usesDatabase()) {
+            initializeDatabase();
+        } else {
+            System.out.println("Using the " + repositories.getBackend() + " storage backend; no database needed.");
+        }
+        EventBus eventBus = EventBus.getInstance();
+        DispatchQueue dispatchQueue = DispatchQueue.getInstance();
+        dispatchUpdater = new DispatchUpdater(dispatchQueue, repositories.getOrderRepository(),
+                repositories.getRestaurantRepository());
+        dispatchUpdater.register(eventBus);
+        dispatchUpdater.resync();
+        dispatchUpdater.scheduleResync(AppConfig.getInstance().getDispatchResyncSeconds());
+        System.out.println("Dispatch queue loaded: " + dispatchQueue.size() + " pending order(s), "
+                + dispatchQueue.getPriority() + " priority.");
+    }
+
+    private static void initializeDatabase() {
+        System.out.println("Initializing database...");
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        if (dbConnection.testConnection()) {
+            System.out.println("Database connection successful!");
+        } else {
+            throw new IllegalStateException("Failed to connect to the database.");
+        }
+        if (AppConfig.getInstance().isMigrateOnStartup()) {
+            int applied = new SchemaMigrator(dbConnection).migrate();
+            System.out.println("Database schema up to date (" + applied + " migration(s) applied).");
+        }
+    }
+
+    /**
+     * Prints the runtime statistics and releases background threads and database connections.
+     */
+    public static void shutdown() {
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        EventBus eventBus = EventBus.getInstance();
+        if (dbConnection.getPoolStats() != null) {
+            System.out.println("Connection pool: " + dbConnection.getPoolStats());
+        }
+        CatalogCache.getStats().forEach(stats -> System.out.println("Cache " + stats));
+        eventBus.getStats().forEach(stats -> System.out.println("Event subscriber " + stats));
+        if (dispatchUpdater != null) {
+            dispatchUpdater.shutdown();
+        }
+        eventBus.shutdown();
+        AsyncExecutor.getInstance().shutdown();
+        dbConnection.closeConnection();
+    }
 }
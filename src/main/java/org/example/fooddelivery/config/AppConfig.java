@@ -2,6 +2,9 @@ package org.example.fooddelivery.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -39,33 +42,190 @@ public class AppConfig {
     private void setDefaultProperties() {
 
         properties.setProperty("db.driver", "com.mysql.cj.jdbc.Driver");
-        properties.setProperty("db.url", "jdbc:mysql://localhost:3306/food_delivery");
+        // without useCursorFetch Connector/J buffers whole result sets, so streamAllOrders() would too
+        properties.setProperty("db.url", "jdbc:mysql://localhost:3306/food_delivery?useCursorFetch=true");
         properties.setProperty("db.username", "root");
         properties.setProperty("db.password", "root");
     }
 
     public String getDbDriver() {
-        return properties.getProperty("db.driver");
+        return getProperty("db.driver");
     }
 
     public String getDbUrl() {
-        return properties.getProperty("db.url");
+        return getProperty("db.url");
     }
 
     public String getDbUser() {
-        return properties.getProperty("db.username");
+        return getProperty("db.username");
     }
 
     public String getDbPassword() {
-        return properties.getProperty("db.password");
+        return getProperty("db.password");
     }
 
+    public int getPoolMinSize() {
+        return getIntProperty("db.pool.minSize", 2);
+    }
+
+    public int getPoolMaxSize() {
+        return getIntProperty("db.pool.maxSize", 10);
+    }
+
+    public long getPoolIdleTimeoutMillis() {
+        return getLongProperty("db.pool.idleTimeoutMs", 600_000L);
+    }
+
+    public long getPoolBorrowTimeoutMillis() {
+        return getLongProperty("db.pool.borrowTimeoutMs", 30_000L);
+    }
+
+    public long getPoolLeakDetectionThresholdMillis() {
+        return getLongProperty("db.pool.leakDetectionThresholdMs", 0L);
+    }
+
+    public boolean isPoolValidateOnBorrow() {
+        return Boolean.parseBoolean(getProperty("db.pool.validateOnBorrow", "true"));
+    }
+
+    public int getPoolValidationTimeoutSeconds() {
+        return getIntProperty("db.pool.validationTimeoutSeconds", 2);
+    }
+
+    public int getStatementCacheSize() {
+        return getIntProperty("db.pool.statementCacheSize", 64);
+    }
+
+    public boolean isMigrateOnStartup() {
+        return Boolean.parseBoolean(getProperty("db.migrate.onStartup", "true"));
+    }
+
+    public BigDecimal getDeliveryCommissionRate() {
+        return new BigDecimal(getProperty("delivery.commissionRate", "0.10"));
+    }
+
+    public int getOrderPageSize() {
+        return getIntProperty("orders.pageSize", 20);
+    }
+
+    public int getOrderStreamFetchSize() {
+        return getIntProperty("orders.stream.fetchSize", 500);
+    }
+
+    public String getDispatchPriority() {
+        return getProperty("dispatch.priority", "AGE");
+    }
+
+    /**
+     * Per-restaurant weights for the PRIORITY dispatch order, written as
+     * {@code restaurantId:weight} pairs separated by commas. Unlisted restaurants weigh 0.
+     */
+    public Map<Integer, Integer> getDispatchRestaurantPriorities() {
+        Map<Integer, Integer> weights = new HashMap<>();
+        String value = getProperty("dispatch.restaurantPriorities", "");
+        for (String pair : value.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split(":");
+            try {
+                weights.put(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                LOGGER.log(Level.WARNING, "Invalid entry in dispatch.restaurantPriorities: " + pair, e);
+            }
+        }
+        return weights;
+    }
+
+    public int getDispatchOfferSize() {
+        return getIntProperty("dispatch.offerSize", 20);
+    }
+
+    /**
+     * How often the dispatch queue is reloaded from the database, picking up orders placed by
+     * other processes; 0 turns the periodic reload off.
+     */
+    public int getDispatchResyncSeconds() {
+        return getIntProperty("dispatch.resyncSeconds", 60);
+    }
+
+    public int getServerPort() {
+        return getIntProperty("server.port", 8080);
+    }
+
+    public int getServerShutdownGraceSeconds() {
+        return getIntProperty("server.shutdownGraceSeconds", 5);
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return getLongProperty("db.slowQuery.thresholdMs", 500L);
+    }
+
+    public boolean isSlowQueryExplainEnabled() {
+        return Boolean.parseBoolean(getProperty("db.slowQuery.explain", "false"));
+    }
+
+    public int getActionRoundTripBudget() {
+        return getIntProperty("actions.roundTripBudget", 25);
+    }
+
+    public boolean isActionRoundTripBudgetFatal() {
+        return Boolean.parseBoolean(getProperty("actions.roundTripBudget.fail", "false"));
+    }
+
+    public int getPasswordHashIterations() {
+        return getIntProperty("security.password.iterations", 310_000);
+    }
+
+    public int getSessionTtlMinutes() {
+        return getIntProperty("security.session.ttlMinutes", 30);
+    }
+
+    public String getStorageBackend() {
+        return getProperty("storage.backend", "jdbc");
+    }
+
+    public boolean isRepositoryMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("metrics.repositories.enabled", "true"));
+    }
+
+    /**
+     * A JVM system property with the same key overrides {@code config.properties}, so tools such
+     * as the benchmarks can point the application elsewhere without their own config file.
+     */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
 
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid integer for " + key + ": " + value, e);
+            return defaultValue;
+        }
+    }
+
+    public long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid number for " + key + ": " + value, e);
+            return defaultValue;
+        }
     }
 
     public void reload() {
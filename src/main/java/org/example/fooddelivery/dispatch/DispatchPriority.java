@@ -0,0 +1,44 @@
+package org.example.fooddelivery.dispatch;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Order in which pending orders are offered to deliverers, chosen with {@code dispatch.priority}.
+ */
+public enum DispatchPriority {
+    /** Oldest order first. */
+    AGE,
+    /** Grouped by restaurant, oldest first within a restaurant, so pickups can be combined. */
+    RESTAURANT,
+    /** Restaurants with a higher {@code dispatch.restaurantPriorities} weight first, then by age. */
+    PRIORITY;
+
+    private static final Logger LOGGER = Logger.getLogger(DispatchPriority.class.getName());
+    private static final Comparator<PendingOrder> BY_AGE = Comparator
+            .comparing(PendingOrder::orderDate)
+            .thenComparingInt(PendingOrder::orderId);
+
+    Comparator<PendingOrder> comparator(Map<Integer, Integer> restaurantWeights) {
+        return switch (this) {
+            case AGE -> BY_AGE;
+            case RESTAURANT -> Comparator.comparingInt(PendingOrder::restaurantId).thenComparing(BY_AGE);
+            case PRIORITY -> Comparator
+                    .comparingInt((PendingOrder order) -> -restaurantWeights.getOrDefault(order.restaurantId(), 0))
+                    .thenComparing(BY_AGE);
+        };
+    }
+
+    static DispatchPriority fromConfig(String value) {
+        if (value == null || value.isBlank()) {
+            return AGE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Unknown dispatch.priority " + value + ", using AGE");
+            return AGE;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.fooddelivery.dispatch;
+
+import org.example.fooddelivery.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Pending orders kept in memory in offer order. Adding, replacing and removing an order are
+ * O(log n); offering the next orders walks the head of the set without touching the database.
+ *
+ * <p>The queue is only a hint: a claim is still decided by {@code OrderRepository.claimOrder},
+ * so an entry that went stale (claimed by another process, say) simply loses its claim and is
+ * dropped. Orders placed by other processes only show up once the queue is resynchronized from
+ * the database with {@link #resync}.</p>
+ */
+public final class DispatchQueue {
+    private static DispatchQueue instance;
+
+    private final DispatchPriority priority;
+    private final ConcurrentSkipListSet<PendingOrder> queue;
+    private final ConcurrentHashMap<Integer, Queued> byOrderId = new ConcurrentHashMap<>();
+
+    DispatchQueue(DispatchPriority priority, Map<Integer, Integer> restaurantWeights) {
+        this.priority = priority;
+        this.queue = new ConcurrentSkipListSet<>(priority.comparator(restaurantWeights));
+    }
+
+    public static synchronized DispatchQueue getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new DispatchQueue(DispatchPriority.fromConfig(config.getDispatchPriority()),
+                    config.getDispatchRestaurantPriorities());
+        }
+        return instance;
+    }
+
+    public DispatchPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Adds an order, replacing any entry already queued for the same order id.
+     */
+    public void add(PendingOrder order) {
+        byOrderId.compute(order.orderId(), (id, previous) -> {
+            if (previous != null) {
+                queue.remove(previous.order());
+            }
+            queue.add(order);
+            return new Queued(order, System.nanoTime());
+        });
+    }
+
+    public void remove(int orderId) {
+        byOrderId.computeIfPresent(orderId, (id, previous) -> {
+            queue.remove(previous.order());
+            return null;
+        });
+    }
+
+    /**
+     * Brings the queue in line with {@code pending}, the pending orders read from the database by
+     * a query that started at {@code readStartedNanos} ({@link System#nanoTime()}). Orders in the
+     * snapshot are added or refreshed. Queued orders missing from it are dropped, unless they were
+     * queued after the read started: the snapshot cannot know about those yet.
+     */
+    public synchronized void resync(Collection<PendingOrder> pending, long readStartedNanos) {
+        Set<Integer> pendingIds = new HashSet<>();
+        for (PendingOrder order : pending) {
+            pendingIds.add(order.orderId());
+            add(order);
+        }
+        for (Map.Entry<Integer, Queued> entry : List.copyOf(byOrderId.entrySet())) {
+            Queued stale = entry.getValue();
+            if (!pendingIds.contains(entry.getKey()) && stale.queuedAtNanos() - readStartedNanos < 0) {
+                byOrderId.computeIfPresent(entry.getKey(), (id, current) -> {
+                    if (current != stale) {
+                        return current;
+                    }
+                    queue.remove(current.order());
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * The next {@code limit} orders to offer, without removing them.
+     */
+    public List<PendingOrder> peek(int limit) {
+        List<PendingOrder> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<PendingOrder> iterator = queue.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public int size() {
+        return byOrderId.size();
+    }
+
+    private record Queued(PendingOrder order, long queuedAtNanos) {
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.fooddelivery.dispatch;
+
+import org.example.fooddelivery.event.DomainEvent;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.OrderCreatedEvent;
+import org.example.fooddelivery.event.OrderStatusChangedEvent;
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.repository.OrderRepository;
+import org.example.fooddelivery.repository.RestaurantRepository;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the {@link DispatchQueue} in step with order events. New pending orders are queued from
+ * the event itself; an order that goes back to pending is re-read, since its version changed.
+ * Events only cover this process, so the queue is also reloaded from the database at startup,
+ * every {@code dispatch.resyncSeconds}, and whenever the event bus had to drop events for it.
+ */
+public class DispatchUpdater {
+    private static final Logger LOGGER = Logger.getLogger(DispatchUpdater.class.getName());
+    private static final String PENDING = "PENDING";
+
+    private final DispatchQueue dispatchQueue;
+    private final OrderRepository orderRepository;
+    private final RestaurantRepository restaurantRepository;
+    private ScheduledExecutorService resyncScheduler;
+
+    public DispatchUpdater(DispatchQueue dispatchQueue, OrderRepository orderRepository,
+                           RestaurantRepository restaurantRepository) {
+        this.dispatchQueue = dispatchQueue;
+        this.orderRepository = orderRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    public void register(EventBus eventBus) {
+        // one subscription, so a creation is always applied before later changes to the same order;
+        // a dropped event would leave the queue wrong until the next scheduled resync, so resync now
+        eventBus.subscribe("dispatch", DomainEvent.class, this::onEvent, this::resync);
+    }
+
+    /**
+     * Reloads the queue from the pending orders in the database.
+     */
+    public void resync() {
+        long readStartedNanos = System.nanoTime();
+        dispatchQueue.resync(orderRepository.getPendingOrders(), readStartedNanos);
+    }
+
+    /**
+     * Calls {@link #resync} every {@code periodSeconds} on a background thread; does nothing when
+     * the period is not positive.
+     */
+    public synchronized void scheduleResync(int periodSeconds) {
+        if (periodSeconds <= 0 || resyncScheduler != null) {
+            return;
+        }
+        resyncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dispatch-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resyncScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                resync();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Dispatch queue resync failed", e);
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (resyncScheduler != null) {
+            resyncScheduler.shutdownNow();
+            resyncScheduler = null;
+        }
+    }
+
+    private void onEvent(DomainEvent event) {
+        switch (event) {
+            case OrderCreatedEvent created -> onOrderCreated(created);
+            case OrderStatusChangedEvent changed -> onStatusChanged(changed);
+            default -> {
+            }
+        }
+    }
+
+    private void onOrderCreated(OrderCreatedEvent event) {
+        if (!PENDING.equals(event.status())) {
+            return;
+        }
+        Restaurant restaurant = restaurantRepository.getRestaurantById(event.restaurantId());
+        dispatchQueue.add(new PendingOrder(event.orderId(), event.restaurantId(),
+                restaurant != null ? restaurant.getName() : null, event.itemCount(),
+                event.total(), event.orderDate(), 0));
+    }
+
+    private void onStatusChanged(OrderStatusChangedEvent event) {
+        if (!PENDING.equals(event.newStatus())) {
+            dispatchQueue.remove(event.orderId());
+            return;
+        }
+        Optional<PendingOrder> pending = orderRepository.getPendingOrder(event.orderId());
+        if (pending.isPresent()) {
+            dispatchQueue.add(pending.get());
+        } else {
+            dispatchQueue.remove(event.orderId());
+        }
+    }
+}
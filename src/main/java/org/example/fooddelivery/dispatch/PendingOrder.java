@@ -0,0 +1,13 @@
+package org.example.fooddelivery.dispatch;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What a deliverer needs to see and claim a pending order, held in the {@link DispatchQueue} so
+ * offering work does not touch the database. {@code version} is the order's row version, passed
+ * back to {@code OrderRepository.claimOrder}.
+ */
+public record PendingOrder(int orderId, int restaurantId, String restaurantName, int itemCount,
+                           BigDecimal total, LocalDateTime orderDate, int version) {
+}
@@ -0,0 +1,7 @@
+package org.example.fooddelivery.event;
+
+public enum ChangeKind {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package org.example.fooddelivery.event;
+
+/**
+ * Something that happened to the stored data, published on the {@link EventBus} after the change
+ * has been committed.
+ */
+public sealed interface DomainEvent
+        permits OrderCreatedEvent, OrderStatusChangedEvent, ProductChangedEvent, RestaurantChangedEvent {
+}
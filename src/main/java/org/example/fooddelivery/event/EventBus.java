@@ -0,0 +1,195 @@
+package org.example.fooddelivery.event;
+
+import org.example.fooddelivery.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process publish/subscribe for {@link DomainEvent}s. Every subscriber gets its own bounded
+ * queue and worker thread, so a slow subscriber delays only itself and sees events in publish
+ * order. Publishing never blocks: when a subscriber's queue is full the event is dropped for that
+ * subscriber and counted. Publishers often still hold a database connection, so waiting for a
+ * stuck subscriber could starve the pool. A subscriber that can rebuild its state from the
+ * database passes a resync callback instead; after a drop, the worker runs it once the queue has
+ * drained, so events still queued cannot overwrite the fresher state.
+ *
+ * <p>Subscribers are for work that may lag behind the write. Anything callers must see as soon as
+ * the write returns (cache invalidation, rollups) stays in the repositories.</p>
+ */
+public final class EventBus {
+    private static final Logger LOGGER = Logger.getLogger(EventBus.class.getName());
+    private static EventBus instance;
+
+    private final int queueCapacity;
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+
+    EventBus(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public static synchronized EventBus getInstance() {
+        if (instance == null) {
+            instance = new EventBus(AppConfig.getInstance().getIntProperty("events.queueCapacity", 1024));
+        }
+        return instance;
+    }
+
+    /**
+     * Registers {@code handler} for events of {@code type} (and its subtypes) and starts its worker.
+     */
+    public <T extends DomainEvent> void subscribe(String name, Class<T> type, Consumer<? super T> handler) {
+        subscribe(name, type, handler, null);
+    }
+
+    /**
+     * Like {@link #subscribe(String, Class, Consumer)}, and runs {@code resync} on the worker
+     * after events were dropped for this subscriber and its queue has drained.
+     */
+    public <T extends DomainEvent> void subscribe(String name, Class<T> type, Consumer<? super T> handler,
+                                                  Runnable resync) {
+        Subscriber<T> subscriber = new Subscriber<>(name, type, handler, resync, queueCapacity);
+        subscribers.add(subscriber);
+        subscriber.start();
+    }
+
+    public void publish(DomainEvent event) {
+        for (Subscriber<?> subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public List<SubscriberStats> getStats() {
+        List<SubscriberStats> stats = new ArrayList<>();
+        for (Subscriber<?> subscriber : subscribers) {
+            stats.add(subscriber.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Stops the workers, giving each a moment to finish the events already queued.
+     */
+    public void shutdown() {
+        for (Subscriber<?> subscriber : subscribers) {
+            subscriber.stop();
+        }
+        subscribers.clear();
+    }
+
+    private record Envelope(DomainEvent event, long publishedNanos) {
+    }
+
+    private static final class Subscriber<T extends DomainEvent> implements Runnable {
+        private final String name;
+        private final Class<T> type;
+        private final Consumer<? super T> handler;
+        private final Runnable resync;
+        private final AtomicBoolean resyncNeeded = new AtomicBoolean();
+        private final BlockingQueue<Envelope> queue;
+        private final Thread worker;
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile boolean running = true;
+
+        Subscriber(String name, Class<T> type, Consumer<? super T> handler, Runnable resync, int capacity) {
+            this.name = name;
+            this.type = type;
+            this.handler = handler;
+            this.resync = resync;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(this, "event-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        void start() {
+            worker.start();
+        }
+
+        void offer(DomainEvent event) {
+            if (!type.isInstance(event)) {
+                return;
+            }
+            if (!queue.offer(new Envelope(event, System.nanoTime()))) {
+                long count = dropped.incrementAndGet();
+                resyncNeeded.set(true);
+                // one warning per power of two keeps a stuck subscriber from flooding the log
+                if (Long.bitCount(count) == 1) {
+                    LOGGER.warning("Subscriber " + name + " is falling behind; " + count + " event(s) dropped");
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                Envelope envelope;
+                try {
+                    envelope = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (envelope == null) {
+                    resyncIfNeeded();
+                    continue;
+                }
+
+                long lag = System.nanoTime() - envelope.publishedNanos();
+                lastLagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                try {
+                    handler.accept(type.cast(envelope.event()));
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Subscriber " + name + " failed on " + envelope.event(), e);
+                }
+                if (queue.isEmpty()) {
+                    resyncIfNeeded();
+                }
+            }
+        }
+
+        private void resyncIfNeeded() {
+            if (resync == null || !resyncNeeded.getAndSet(false)) {
+                return;
+            }
+            try {
+                resync.run();
+            } catch (RuntimeException e) {
+                // try again the next time the queue drains
+                resyncNeeded.set(true);
+                LOGGER.log(Level.WARNING, "Subscriber " + name + " failed to resync", e);
+            }
+        }
+
+        void stop() {
+            running = false;
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        SubscriberStats stats() {
+            return new SubscriberStats(name, queue.size(), delivered.get(), dropped.get(), failed.get(),
+                    TimeUnit.NANOSECONDS.toMillis(lastLagNanos), TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.fooddelivery.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderCreatedEvent(int orderId, int userId, int restaurantId, String status, int itemCount,
+                                BigDecimal total, LocalDateTime orderDate) implements DomainEvent {
+}
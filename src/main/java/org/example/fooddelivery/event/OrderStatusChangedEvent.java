@@ -0,0 +1,9 @@
+package org.example.fooddelivery.event;
+
+/**
+ * An order moved from {@code oldStatus} to {@code newStatus}; {@code delivererId} is the
+ * deliverer recorded with the change.
+ */
+public record OrderStatusChangedEvent(int orderId, String oldStatus, String newStatus, int delivererId)
+        implements DomainEvent {
+}
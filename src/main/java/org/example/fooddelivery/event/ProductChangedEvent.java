@@ -0,0 +1,7 @@
+package org.example.fooddelivery.event;
+
+/**
+ * {@code restaurantId} is 0 when it is not known, as for a deleted product.
+ */
+public record ProductChangedEvent(int productId, int restaurantId, ChangeKind kind) implements DomainEvent {
+}
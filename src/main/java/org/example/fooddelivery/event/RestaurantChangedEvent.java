@@ -0,0 +1,4 @@
+package org.example.fooddelivery.event;
+
+public record RestaurantChangedEvent(int restaurantId, ChangeKind kind) implements DomainEvent {
+}
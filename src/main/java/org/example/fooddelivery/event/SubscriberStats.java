@@ -0,0 +1,14 @@
+package org.example.fooddelivery.event;
+
+/**
+ * Delivery counters for one subscriber. {@code queued} events are waiting to be handled; lag is
+ * the time from publishing an event to the subscriber starting to handle it.
+ */
+public record SubscriberStats(String name, int queued, long delivered, long dropped, long failed,
+                              long lastLagMillis, long maxLagMillis) {
+    @Override
+    public String toString() {
+        return String.format("%s: queued=%d, delivered=%d, dropped=%d, failed=%d, lag=%dms (max %dms)",
+                name, queued, delivered, dropped, failed, lastLagMillis, maxLagMillis);
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.fooddelivery.loadtest;
+
+import org.example.fooddelivery.FoodDeliveryApplication;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.dispatch.PendingOrder;
+import org.example.fooddelivery.metrics.ActionScope;
+import org.example.fooddelivery.metrics.LatencyHistogram;
+import org.example.fooddelivery.metrics.LatencySnapshot;
+import org.example.fooddelivery.model.*;
+import org.example.fooddelivery.repository.OrderRepository;
+import org.example.fooddelivery.repository.ProductRepository;
+import org.example.fooddelivery.repository.RepositoryFactory;
+import org.example.fooddelivery.repository.RestaurantRepository;
+import org.example.fooddelivery.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives the repositories with simulated clients, deliverers and employees, each on its own
+ * virtual thread, and reports throughput and latency percentiles per operation.
+ *
+ * <p>Run with {@code key=value} arguments, for example
+ * {@code clients=200 deliverers=50 employees=5 rampUpSeconds=20 durationSeconds=120}. Users are
+ * started evenly over the ramp-up, and only operations that start after it are measured.
+ * The run places real orders and creates {@code loadtest-*} users, so point it at a test
+ * database that already has restaurants with products.</p>
+ */
+public class LoadGenerator {
+    private static final String PASSWORD = "loadtest";
+    private static final String LOADTEST_ACTION_PREFIX = "loadtest.";
+
+    private final LoadSettings settings;
+    private final UserRepository userRepository = RepositoryFactory.getInstance().getUserRepository();
+    private final RestaurantRepository restaurantRepository = RepositoryFactory.getInstance().getRestaurantRepository();
+    private final ProductRepository productRepository = RepositoryFactory.getInstance().getProductRepository();
+    private final OrderRepository orderRepository = RepositoryFactory.getInstance().getOrderRepository();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private List<Restaurant> restaurants;
+
+    LoadGenerator(LoadSettings settings) {
+        this.settings = settings;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public static void main(String[] args) {
+        LoadSettings settings = LoadSettings.parse(args);
+        FoodDeliveryApplication.initialize();
+        try {
+            new LoadGenerator(settings).run();
+        } finally {
+            FoodDeliveryApplication.shutdown();
+        }
+    }
+
+    void run() {
+        restaurants = new ArrayList<>();
+        for (Restaurant restaurant : restaurantRepository.getAllRestaurants()) {
+            List<Product> menu = productRepository.getProductsByRestaurantId(restaurant.getId());
+            if (menu != null && !menu.isEmpty()) {
+                restaurants.add(restaurant);
+            }
+        }
+        if (restaurants.isEmpty()) {
+            throw new IllegalStateException("The load test needs at least one restaurant with products");
+        }
+
+        List<User> users = new ArrayList<>();
+        users.addAll(ensureUsers(User.UserRole.CLIENT, settings.clients()));
+        users.addAll(ensureUsers(User.UserRole.DELIVERER, settings.deliverers()));
+        users.addAll(ensureUsers(User.UserRole.EMPLOYEE, settings.employees()));
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.rampUpSeconds());
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+        long startInterval = users.isEmpty() ? 0 : TimeUnit.SECONDS.toNanos(settings.rampUpSeconds()) / users.size();
+        System.out.printf("Load test: %d clients, %d deliverers, %d employees, %ds ramp-up, %ds measured%n",
+                settings.clients(), settings.deliverers(), settings.employees(),
+                settings.rampUpSeconds(), settings.durationSeconds());
+
+        // the executor's close() waits for every simulated user to reach the deadline
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                long startAt = start + i * startInterval;
+                executor.submit(() -> simulate(user, startAt, measureFrom, deadline));
+            }
+        }
+        printReport(settings.durationSeconds());
+    }
+
+    private List<User> ensureUsers(User.UserRole role, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String username = "loadtest-" + role.name().toLowerCase() + "-" + i;
+            User user = userRepository.authenticate(username, PASSWORD);
+            if (user == null) {
+                user = new User(0, username, PASSWORD, role);
+                if (!userRepository.registerUser(user)) {
+                    throw new IllegalStateException("Could not create load test user " + username);
+                }
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private void simulate(User user, long startAt, long measureFrom, long deadline) {
+        List<Operation> operations = new ArrayList<>();
+        int totalWeight = 0;
+        for (Operation operation : Operation.values()) {
+            if (operation.role == user.getRole() && settings.weights().get(operation) > 0) {
+                operations.add(operation);
+                totalWeight += settings.weights().get(operation);
+            }
+        }
+        if (operations.isEmpty() || !sleepNanos(startAt - System.nanoTime())) {
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(operations, random.nextInt(totalWeight));
+            long began = System.nanoTime();
+            Outcome outcome;
+            int roundTrips = 0;
+            try (ActionScope scope = ActionScope.open(LOADTEST_ACTION_PREFIX + operation.key)) {
+                outcome = execute(operation, user, random) ? Outcome.OK : Outcome.REJECTED;
+                roundTrips = scope.getRoundTrips();
+            } catch (RuntimeException e) {
+                outcome = Outcome.ERROR;
+            }
+            long ended = System.nanoTime();
+            if (began >= measureFrom && ended <= deadline) {
+                stats.get(operation).record(ended - began, outcome, roundTrips);
+            }
+
+            // exponential think time gives Poisson arrivals per user
+            long thinkNanos = (long) (-Math.log(1 - random.nextDouble())
+                    * TimeUnit.MILLISECONDS.toNanos(settings.thinkTimeMillis()));
+            if (!sleepNanos(Math.min(thinkNanos, deadline - System.nanoTime()))) {
+                return;
+            }
+        }
+    }
+
+    private Operation pick(List<Operation> operations, int ticket) {
+        for (Operation operation : operations) {
+            ticket -= settings.weights().get(operation);
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * Runs one operation; returns false when it completed but was turned away, such as losing a
+     * claim to another deliverer.
+     */
+    private boolean execute(Operation operation, User user, ThreadLocalRandom random) {
+        LocalDate today = LocalDate.now();
+        return switch (operation) {
+            case BROWSE_RESTAURANTS -> !restaurantRepository.getAllRestaurants().isEmpty();
+            case VIEW_MENU -> productRepository.getProductsByRestaurantId(randomRestaurant(random).getId()) != null;
+            case PLACE_ORDER -> placeOrder(user, random);
+            case MY_ORDERS -> orderRepository.getOrdersByUserId(user.getId()) != null;
+            case AVAILABLE_ORDERS -> !DispatchQueue.getInstance().peek(20).isEmpty();
+            case CLAIM_ORDER -> claimOrder(user, random);
+            case MY_DELIVERIES -> orderRepository.getDeliveriesByDelivererId(user.getId()) != null;
+            case EARNINGS -> orderRepository.calculateDelivererEarnings(user.getId()) != null;
+            case SALES_BY_RESTAURANT -> orderRepository.getSalesByRestaurant(today, today.plusDays(1)) != null;
+            case SALES_BY_DAY -> orderRepository.getSalesByDay(today.withDayOfMonth(1), today.withDayOfMonth(1).plusMonths(1)) != null;
+            case POPULAR_PRODUCTS -> productRepository.getPopularProductSales(10, null, null, null) != null;
+            case ORDERS_PAGE -> orderRepository.getOrdersPage(null, 20) != null;
+        };
+    }
+
+    private boolean placeOrder(User user, ThreadLocalRandom random) {
+        Restaurant restaurant = randomRestaurant(random);
+        List<Product> menu = productRepository.getProductsByRestaurantId(restaurant.getId());
+        if (menu == null || menu.isEmpty()) {
+            return false;
+        }
+        List<OrderItem> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(Math.min(3, menu.size()));
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem(0, 0, menu.get(random.nextInt(menu.size())), 1 + random.nextInt(3)));
+        }
+        return orderRepository.createOrder(new Order(0, user, restaurant, items, LocalDateTime.now(), "PENDING"));
+    }
+
+    private boolean claimOrder(User user, ThreadLocalRandom random) {
+        // deliverers looking at the same list pick among the first few, like people would
+        List<PendingOrder> offered = DispatchQueue.getInstance().peek(5);
+        if (offered.isEmpty()) {
+            return false;
+        }
+        PendingOrder choice = offered.get(random.nextInt(offered.size()));
+        return orderRepository.claimOrder(choice.orderId(), choice.version(), user.getId());
+    }
+
+    private Restaurant randomRestaurant(ThreadLocalRandom random) {
+        return restaurants.get(random.nextInt(restaurants.size()));
+    }
+
+    private void printReport(int seconds) {
+        System.out.println();
+        System.out.printf("%-20s %9s %9s %7s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Operation", "Count", "Rejected", "Errors", "Ops/s", "SQL/op", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms",
+                "max ms");
+        long total = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            LatencySnapshot latency = entry.getValue().latency.snapshot();
+            if (latency.count() == 0) {
+                continue;
+            }
+            total += latency.count();
+            System.out.printf("%-20s %9d %9d %7d %9.1f %7.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().key, latency.count(), entry.getValue().rejected.sum(), entry.getValue().errors.sum(),
+                    latency.count() / (double) Math.max(1, seconds),
+                    entry.getValue().roundTrips.sum() / (double) latency.count(), latency.p50Millis(),
+                    latency.p95Millis(), latency.p99Millis(), latency.p999Millis(), latency.maxMillis());
+        }
+        System.out.printf("Total: %d operations, %.1f ops/s%n", total, total / (double) Math.max(1, seconds));
+    }
+
+    private static boolean sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private enum Outcome {
+        OK, REJECTED, ERROR
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        // statements run by the operation, async tasks included; failed operations count as zero
+        final LongAdder roundTrips = new LongAdder();
+
+        void record(long nanos, Outcome outcome, int statements) {
+            latency.record(nanos);
+            roundTrips.add(statements);
+            if (outcome == Outcome.REJECTED) {
+                rejected.increment();
+            } else if (outcome == Outcome.ERROR) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.fooddelivery.loadtest;
+
+import org.example.fooddelivery.config.AppConfig;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from {@code key=value} arguments with {@code loadtest.<key>} in
+ * {@code config.properties} as the fallback.
+ */
+record LoadSettings(int clients, int deliverers, int employees, int rampUpSeconds, int durationSeconds,
+                    int thinkTimeMillis, Map<Operation, Integer> weights) {
+
+    static LoadSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            values.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+        }
+
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, intValue(values, "mix." + operation.key, operation.defaultWeight));
+        }
+        return new LoadSettings(
+                intValue(values, "clients", 20),
+                intValue(values, "deliverers", 5),
+                intValue(values, "employees", 2),
+                intValue(values, "rampUpSeconds", 10),
+                intValue(values, "durationSeconds", 60),
+                intValue(values, "thinkTimeMs", 100),
+                weights
+        );
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return AppConfig.getInstance().getIntProperty("loadtest." + key, defaultValue);
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a whole number but got " + value);
+        }
+    }
+}
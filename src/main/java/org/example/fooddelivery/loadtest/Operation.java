@@ -0,0 +1,34 @@
+package org.example.fooddelivery.loadtest;
+
+import org.example.fooddelivery.model.User;
+
+/**
+ * What a simulated user can do, with the default share of that role's traffic. Weights can be
+ * overridden with {@code mix.<key>=<weight>}.
+ */
+enum Operation {
+    BROWSE_RESTAURANTS("browseRestaurants", User.UserRole.CLIENT, 20),
+    VIEW_MENU("viewMenu", User.UserRole.CLIENT, 30),
+    PLACE_ORDER("placeOrder", User.UserRole.CLIENT, 30),
+    MY_ORDERS("myOrders", User.UserRole.CLIENT, 20),
+
+    AVAILABLE_ORDERS("availableOrders", User.UserRole.DELIVERER, 40),
+    CLAIM_ORDER("claimOrder", User.UserRole.DELIVERER, 40),
+    MY_DELIVERIES("myDeliveries", User.UserRole.DELIVERER, 10),
+    EARNINGS("earnings", User.UserRole.DELIVERER, 10),
+
+    SALES_BY_RESTAURANT("salesByRestaurant", User.UserRole.EMPLOYEE, 30),
+    SALES_BY_DAY("salesByDay", User.UserRole.EMPLOYEE, 20),
+    POPULAR_PRODUCTS("popularProducts", User.UserRole.EMPLOYEE, 20),
+    ORDERS_PAGE("ordersPage", User.UserRole.EMPLOYEE, 30);
+
+    final String key;
+    final User.UserRole role;
+    final int defaultWeight;
+
+    Operation(String key, User.UserRole role, int defaultWeight) {
+        this.key = key;
+        this.role = role;
+        this.defaultWeight = defaultWeight;
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.fooddelivery.metrics;
+
+import org.example.fooddelivery.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Counts the database round trips made on behalf of one user action, such as a console menu
+ * action or an HTTP request, per SQL shape. Closing a scope that went over
+ * {@code actions.roundTripBudget} logs a warning naming the shapes that ran more than once, which
+ * is how per-row lookups inside loops show up; with {@code actions.roundTripBudget.fail} set it
+ * throws {@link RoundTripBudgetExceededException} instead.
+ *
+ * <p>Round trips are reported by the statement tracer, so nothing is counted while
+ * {@code db.slowQuery.thresholdMs} is negative. Work handed to other threads is counted only if it
+ * is wrapped with {@link #propagate}.</p>
+ *
+ * <p>In try-with-resources, an exception thrown by the body wins: the budget exception from
+ * {@link #close()} is only attached to it as a suppressed exception, so an action that both fails
+ * and goes over budget reports the failure, and the over-budget details are found through
+ * {@link Throwable#getSuppressed()}.</p>
+ */
+public final class ActionScope implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ActionScope.class.getName());
+    private static final int REPORTED_SHAPES = 5;
+    private static final ThreadLocal<ActionScope> CURRENT = new ThreadLocal<>();
+
+    private final String action;
+    private final int budget;
+    private final boolean failOverBudget;
+    private final ActionScope previous;
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final Map<String, Integer> shapes = new ConcurrentHashMap<>();
+    private boolean closed;
+
+    private ActionScope(String action, int budget, boolean failOverBudget, ActionScope previous) {
+        this.action = action;
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a scope for {@code action} on the current thread. Close it on the same thread.
+     */
+    public static ActionScope open(String action) {
+        AppConfig config = AppConfig.getInstance();
+        ActionScope scope = new ActionScope(action, config.getActionRoundTripBudget(),
+                config.isActionRoundTripBudgetFatal(), CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Counts one statement execution against the scope open on the current thread, if any.
+     */
+    public static void recordRoundTrip(String shape) {
+        ActionScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.roundTrips.incrementAndGet();
+            scope.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Wraps {@code task} so that, wherever it runs, its round trips count against the scope open
+     * on the calling thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        ActionScope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            ActionScope outer = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return task.get();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Statement shapes that ran more than once in this scope, most frequent first.
+     */
+    public List<Map.Entry<String, Integer>> getRepeatedShapes() {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+            if (entry.getValue() > 1) {
+                repeated.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated;
+    }
+
+    /**
+     * Restores the scope that was open before this one, then checks the budget. Throws
+     * {@link RoundTripBudgetExceededException} in fail mode, unless the try-with-resources body
+     * already threw, in which case it is suppressed onto that exception.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+
+        int count = roundTrips.get();
+        if (budget <= 0 || count <= budget) {
+            return;
+        }
+        String message = describeOverBudget(count);
+        if (failOverBudget) {
+            throw new RoundTripBudgetExceededException(action, count, budget, message);
+        }
+        LOGGER.warning(message);
+    }
+
+    private String describeOverBudget(int count) {
+        StringBuilder message = new StringBuilder()
+                .append("Action ").append(action).append(" made ").append(count)
+                .append(" database round trips, over the budget of ").append(budget);
+        List<Map.Entry<String, Integer>> repeated = getRepeatedShapes();
+        for (Map.Entry<String, Integer> entry : repeated.subList(0, Math.min(REPORTED_SHAPES, repeated.size()))) {
+            message.append("\n  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.fooddelivery.metrics;
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}; all durations are in milliseconds.
+ */
+public record LatencySnapshot(long count, double meanMillis, double p50Millis, double p95Millis,
+                              double p99Millis, double p999Millis, double maxMillis) {
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.2fms, p50=%.2fms, p95=%.2fms, p99=%.2fms, p99.9=%.2fms, max=%.2fms",
+                count, meanMillis, p50Millis, p95Millis, p99Millis, p999Millis, maxMillis);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.fooddelivery.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide named latency histograms, created on first use.
+ */
+public final class MetricsRegistry {
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Snapshots of every histogram whose name starts with {@code prefix}, sorted by name.
+     */
+    public static Map<String, LatencySnapshot> snapshot(String prefix) {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> {
+            if (name.startsWith(prefix)) {
+                snapshots.put(name, histogram.snapshot());
+            }
+        });
+        return snapshots;
+    }
+}
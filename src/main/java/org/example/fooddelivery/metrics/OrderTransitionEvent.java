@@ -0,0 +1,43 @@
+package org.example.fooddelivery.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An order entering a status, emitted when the change is committed. Creation has no previous
+ * status.
+ */
+@Name("org.example.fooddelivery.OrderTransition")
+@Label("Order Transition")
+@Category({"Food Delivery", "Orders"})
+@StackTrace(false)
+public final class OrderTransitionEvent extends Event {
+    @Label("Order ID")
+    int orderId;
+
+    @Label("From Status")
+    String fromStatus;
+
+    @Label("To Status")
+    String toStatus;
+
+    @Label("Deliverer ID")
+    int delivererId;
+
+    private OrderTransitionEvent() {
+    }
+
+    public static void emit(int orderId, String fromStatus, String toStatus, int delivererId) {
+        OrderTransitionEvent event = new OrderTransitionEvent();
+        if (event.shouldCommit()) {
+            event.orderId = orderId;
+            event.fromStatus = fromStatus;
+            event.toStatus = toStatus;
+            event.delivererId = delivererId;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.fooddelivery.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call through an instrumented repository, recorded by {@link RepositoryMetrics}.
+ */
+@Name("org.example.fooddelivery.RepositoryCall")
+@Label("Repository Call")
+@Category({"Food Delivery", "Repository"})
+@Description("A repository method call, with the SQL shapes it executed")
+@StackTrace(false)
+public final class RepositoryCallEvent extends Event {
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("SQL Shapes")
+    @Description("Distinct statements executed during the call, separated by semicolons")
+    String sqlShapes;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,15 @@
+package org.example.fooddelivery.metrics;
+
+/**
+ * Counters for one repository method. {@code errors} counts calls that threw or that reported a
+ * failure through {@link RepositoryMetrics#recordError}; {@code rows} is the total number of rows
+ * the method returned.
+ */
+public record RepositoryCallStats(String name, long calls, long errors, long rows, LatencySnapshot latency) {
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d, errors=%d, rows=%d, mean=%.2fms, p50=%.2fms, p99=%.2fms, max=%.2fms",
+                name, calls, errors, rows, latency.meanMillis(), latency.p50Millis(), latency.p99Millis(),
+                latency.maxMillis());
+    }
+}
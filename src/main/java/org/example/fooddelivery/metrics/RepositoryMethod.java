@@ -0,0 +1,77 @@
+package org.example.fooddelivery.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram for one repository method. Recording only touches striped
+ * adders and the lock-free histogram, so concurrent callers do not contend.
+ */
+public final class RepositoryMethod implements RepositoryMethodMBean {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency;
+
+    RepositoryMethod(String name) {
+        this.name = name;
+        this.latency = MetricsRegistry.histogram(RepositoryMetrics.METRICS_PREFIX + name);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long durationNanos, long rowCount, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        rows.add(rowCount);
+        latency.record(durationNanos);
+    }
+
+    RepositoryCallStats getStats() {
+        return new RepositoryCallStats(name, calls.sum(), errors.sum(), rows.sum(), latency.snapshot());
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowsReturned() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.snapshot().meanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.snapshot().p50Millis();
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.snapshot().p95Millis();
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.snapshot().p99Millis();
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.snapshot().maxMillis();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.fooddelivery.metrics;
+
+/**
+ * JMX view of one repository method, registered as
+ * {@code org.example.fooddelivery:type=Repository,repository=<interface>,method=<method>}.
+ */
+public interface RepositoryMethodMBean {
+    long getCalls();
+
+    long getErrors();
+
+    long getRowsReturned();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
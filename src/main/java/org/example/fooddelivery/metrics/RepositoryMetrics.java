@@ -0,0 +1,226 @@
+package org.example.fooddelivery.metrics;
+
+import org.example.fooddelivery.model.OrderPage;
+import org.example.fooddelivery.model.OrderSummaryPage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.BaseStream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instruments repository interfaces with a dynamic proxy that counts calls, errors and returned
+ * rows and records latency per method. Each method is also published as a
+ * {@link RepositoryMethodMBean} and its histogram is registered as {@code repository.<name>} in the
+ * {@link MetricsRegistry}.
+ *
+ * <p>The JDBC repositories catch their own {@code SQLException}s and return an empty result, so
+ * they report them through {@link #recordError}, which logs the failure and counts it against the
+ * call in progress on the current thread.</p>
+ *
+ * <p>Every call is also emitted as a {@link RepositoryCallEvent} listing the SQL shapes it
+ * executed, which the statement tracer reports through {@link #recordStatement}.</p>
+ */
+public final class RepositoryMetrics {
+    public static final String METRICS_PREFIX = "repository.";
+
+    private static final Logger LOGGER = Logger.getLogger(RepositoryMetrics.class.getName());
+    private static final String OBJECT_NAME_DOMAIN = "org.example.fooddelivery";
+    private static final Map<String, RepositoryMethod> METHODS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Call> CURRENT_CALL = new ThreadLocal<>();
+
+    private RepositoryMetrics() {
+    }
+
+    /**
+     * Wraps {@code target} so every call through {@code type} is measured.
+     */
+    public static <T> T instrument(Class<T> type, T target) {
+        Map<Method, RepositoryMethod> methods = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = type.getSimpleName() + "." + methodKey(type, method);
+            methods.put(method, METHODS.computeIfAbsent(name, key -> register(type, method, key)));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new Handler(type.getSimpleName(), target, methods)));
+    }
+
+    /**
+     * Logs a failure the repository handled itself and marks the current call as failed.
+     */
+    public static void recordError(Exception e) {
+        Call call = CURRENT_CALL.get();
+        if (call != null) {
+            call.failed = true;
+            LOGGER.log(Level.WARNING, "Repository call " + call.name + " failed", e);
+        } else {
+            LOGGER.log(Level.WARNING, "Repository call failed", e);
+        }
+    }
+
+    /**
+     * Notes a statement executed by the call in progress on the current thread, if its
+     * {@link RepositoryCallEvent} is being recorded.
+     */
+    public static void recordStatement(String shape) {
+        Call call = CURRENT_CALL.get();
+        if (call != null && call.shapes != null) {
+            call.shapes.add(shape);
+        }
+    }
+
+    /**
+     * Stats for every instrumented method, sorted by name.
+     */
+    public static List<RepositoryCallStats> getStats() {
+        List<RepositoryCallStats> stats = new ArrayList<>();
+        for (RepositoryMethod method : METHODS.values()) {
+            stats.add(method.getStats());
+        }
+        stats.sort((a, b) -> a.name().compareTo(b.name()));
+        return stats;
+    }
+
+    /**
+     * Rows a call returned: the size of a list or page, one for a present entity, zero for
+     * nothing. Counts and flags are not rows. A stream is consumed lazily, so it counts as zero.
+     */
+    static long rowsOf(Object result) {
+        if (result == null || result instanceof Boolean || result instanceof Number) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof OrderPage page) {
+            return page.orders().size();
+        }
+        if (result instanceof OrderSummaryPage page) {
+            return page.orders().size();
+        }
+        if (result instanceof BaseStream<?, ?>) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * The method name, with the parameter count appended for overloaded methods.
+     */
+    private static String methodKey(Class<?> type, Method method) {
+        for (Method other : type.getMethods()) {
+            if (!other.equals(method) && other.getName().equals(method.getName())) {
+                return method.getName() + "/" + method.getParameterCount();
+            }
+        }
+        return method.getName();
+    }
+
+    private static RepositoryMethod register(Class<?> type, Method method, String name) {
+        RepositoryMethod repositoryMethod = new RepositoryMethod(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME_DOMAIN + ":type=Repository,repository="
+                    + type.getSimpleName() + ",method=" + ObjectName.quote(methodKey(type, method)));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(repositoryMethod, objectName);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register MBean for " + name, e);
+        }
+        return repositoryMethod;
+    }
+
+    private static final class Call {
+        final String name;
+        final Set<String> shapes;
+        boolean failed;
+
+        Call(String name, boolean collectShapes) {
+            this.name = name;
+            this.shapes = collectShapes ? new LinkedHashSet<>() : null;
+        }
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final String repository;
+        private final Object target;
+        private final Map<Method, RepositoryMethod> methods;
+
+        Handler(String repository, Object target, Map<Method, RepositoryMethod> methods) {
+            this.repository = repository;
+            this.target = target;
+            this.methods = methods;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            RepositoryMethod metrics = methods.get(method);
+            if (metrics == null) {
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                // hashCode and toString
+                return invokeTarget(method, args);
+            }
+
+            Call previous = CURRENT_CALL.get();
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            Call call = new Call(metrics.getName(), event.isEnabled());
+            CURRENT_CALL.set(call);
+            event.begin();
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invokeTarget(method, args);
+                return result;
+            } catch (Throwable t) {
+                call.failed = true;
+                throw t;
+            } finally {
+                long rows = rowsOf(result);
+                metrics.record(System.nanoTime() - start, rows, call.failed);
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = method.getName();
+                    event.sqlShapes = String.join("; ", call.shapes);
+                    event.rows = rows;
+                    event.failed = call.failed;
+                    event.commit();
+                }
+                if (previous != null) {
+                    CURRENT_CALL.set(previous);
+                } else {
+                    CURRENT_CALL.remove();
+                }
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.fooddelivery.metrics;
+
+/**
+ * Thrown when an {@link ActionScope} closes over its round-trip budget and
+ * {@code actions.roundTripBudget.fail} is set.
+ */
+public class RoundTripBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String action;
+    private final int roundTrips;
+    private final int budget;
+
+    public RoundTripBudgetExceededException(String action, int roundTrips, int budget, String message) {
+        super(message);
+        this.action = action;
+        this.roundTrips = roundTrips;
+        this.budget = budget;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.fooddelivery.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One statement execution seen by the JDBC statement tracer.
+ */
+@Name("org.example.fooddelivery.SqlStatement")
+@Label("SQL Statement")
+@Category({"Food Delivery", "Repository"})
+public final class SqlStatementEvent extends Event {
+    @Label("SQL Shape")
+    String shape;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Slow")
+    boolean slow;
+
+    public SqlStatementEvent() {
+    }
+
+    /**
+     * Commits the event if it is enabled. Call {@link #begin()} before executing the statement.
+     */
+    public void commit(String shape, int batchSize, boolean slow) {
+        if (shouldCommit()) {
+            this.shape = shape;
+            this.batchSize = batchSize;
+            this.slow = slow;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.fooddelivery.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A console menu action or an HTTP request, from start to finish. Console actions include the
+ * time the user spends reading and answering prompts.
+ */
+@Name("org.example.fooddelivery.UserAction")
+@Label("User Action")
+@Category({"Food Delivery", "Actions"})
+@Description("A console menu action or an HTTP request")
+@StackTrace(false)
+public final class UserActionEvent extends Event {
+    @Label("Channel")
+    String channel;
+
+    @Label("Action")
+    String action;
+
+    @Label("User ID")
+    int userId;
+
+    @Label("Role")
+    String role;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Round Trips")
+    @Description("Statements executed for the action, including its async tasks")
+    int roundTrips;
+
+    public UserActionEvent(String channel, String action, int userId, String role) {
+        this.channel = channel;
+        this.action = action;
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public void setRoundTrips(int roundTrips) {
+        this.roundTrips = roundTrips;
+    }
+}
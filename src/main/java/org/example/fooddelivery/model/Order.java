@@ -1,5 +1,6 @@
 package org.example.fooddelivery.model;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +12,8 @@ public class Order {
     private String status;
     private LocalDateTime orderDate;
     private List<OrderItem> items;
+    private BigDecimal total;
+    private int version;
 
     public Order(int id, User user, Restaurant restaurant, List<OrderItem> items, LocalDateTime orderDate, String status) {
         this.id = id;
@@ -64,6 +67,34 @@ public class Order {
         this.items = items;
     }
 
+    /**
+     * Total stored with the order, or the sum of the item subtotals for an order that has not
+     * been stored yet.
+     */
+    public BigDecimal getTotal() {
+        return total != null ? total : calculateItemsTotal();
+    }
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public BigDecimal calculateItemsTotal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        if (items != null) {
+            for (OrderItem item : items) {
+                sum = sum.add(item.getSubtotal());
+            }
+        }
+        return sum;
+    }
+
     public void addOrderItem(OrderItem item) {
         if (items == null) {
             items = new ArrayList<>();
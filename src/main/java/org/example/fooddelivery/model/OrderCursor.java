@@ -0,0 +1,14 @@
+package org.example.fooddelivery.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in the order history, ordered by {@code (order_date DESC, id DESC)}.
+ * The next page starts strictly after this order.
+ */
+public record OrderCursor(LocalDateTime orderDate, int id) {
+
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+}
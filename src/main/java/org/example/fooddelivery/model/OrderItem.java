@@ -7,12 +7,18 @@ public class OrderItem {
     private int orderId;
     private Product product;
     private int quantity;
+    private BigDecimal unitPrice;
 
     public OrderItem(int id, int orderId, Product product, int quantity) {
+        this(id, orderId, product, quantity, null);
+    }
+
+    public OrderItem(int id, int orderId, Product product, int quantity, BigDecimal unitPrice) {
         this.id = id;
         this.orderId = orderId;
         this.product = product;
         this.quantity = quantity;
+        this.unitPrice = unitPrice;
     }
 
     public int getId() {
@@ -47,9 +53,24 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
+    /**
+     * Price per unit when the order was placed; falls back to the product's current price for
+     * items that have not been stored yet.
+     */
+    public BigDecimal getUnitPrice() {
+        if (unitPrice != null) {
+            return unitPrice;
+        }
+        return product != null ? product.getPrice() : null;
+    }
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
     public BigDecimal getSubtotal() {
-        if (product != null && product.getPrice() != null) {
-            return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+        BigDecimal price = getUnitPrice();
+        if (price != null) {
+            return price.multiply(BigDecimal.valueOf(quantity));
         }
         return BigDecimal.ZERO;
     }
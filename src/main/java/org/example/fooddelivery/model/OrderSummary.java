@@ -0,0 +1,21 @@
+package org.example.fooddelivery.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What the order lists show about an order, read in one query instead of loading the order with
+ * its user, restaurant, items and products. {@code itemCount} is the number of order lines, not the
+ * sum of their quantities, which is what the Items column showed when the screens printed
+ * {@code getItems().size()}; an order without lines counts 0.
+ */
+public record OrderSummary(
+        int id,
+        String customerName,
+        String restaurantName,
+        String status,
+        LocalDateTime orderDate,
+        int itemCount,
+        BigDecimal total
+) {
+}
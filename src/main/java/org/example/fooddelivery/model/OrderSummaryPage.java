@@ -0,0 +1,10 @@
+package org.example.fooddelivery.model;
+
+import java.util.List;
+
+public record OrderSummaryPage(List<OrderSummary> orders, OrderCursor nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.fooddelivery.model;
+
+import java.math.BigDecimal;
+
+public record ProductSales(Product product, int orderCount, BigDecimal deliveredRevenue) {
+}
@@ -0,0 +1,17 @@
+package org.example.fooddelivery.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a sales report, aggregated from the daily sales rollup. {@code label} is the
+ * restaurant name or the day, depending on how the report is grouped.
+ */
+public record SalesReportRow(
+        String label,
+        int orderCount,
+        int itemCount,
+        BigDecimal revenue,
+        int deliveredCount,
+        BigDecimal deliveredRevenue
+) {
+}
@@ -0,0 +1,89 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Order;
+import org.example.fooddelivery.model.OrderCursor;
+import org.example.fooddelivery.model.OrderPage;
+import org.example.fooddelivery.model.OrderSummary;
+import org.example.fooddelivery.model.OrderSummaryPage;
+import org.example.fooddelivery.model.SalesReportRow;
+import org.example.fooddelivery.util.AsyncExecutor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link OrderRepository}; see {@link AsyncExecutor}. There is no async
+ * {@code streamAllOrders}: the stream holds a connection until the caller closes it.
+ */
+public class AsyncOrderRepository {
+    private final OrderRepository delegate;
+    private final AsyncExecutor executor;
+
+    public AsyncOrderRepository(OrderRepository delegate) {
+        this.delegate = delegate;
+        this.executor = AsyncExecutor.getInstance();
+    }
+
+    public CompletableFuture<OrderPage> getOrdersPage(OrderCursor after, int pageSize) {
+        return executor.supply(() -> delegate.getOrdersPage(after, pageSize));
+    }
+
+    public CompletableFuture<OrderSummaryPage> getOrderSummariesPage(OrderCursor after, int pageSize) {
+        return executor.supply(() -> delegate.getOrderSummariesPage(after, pageSize));
+    }
+
+    public CompletableFuture<List<Order>> getOrdersByUserId(int userId) {
+        return executor.supply(() -> delegate.getOrdersByUserId(userId));
+    }
+
+    public CompletableFuture<List<OrderSummary>> getOrderSummariesByUserId(int userId) {
+        return executor.supply(() -> delegate.getOrderSummariesByUserId(userId));
+    }
+
+    public CompletableFuture<List<Order>> getOrdersByStatus(String status) {
+        return executor.supply(() -> delegate.getOrdersByStatus(status));
+    }
+
+    public CompletableFuture<List<Order>> getDeliveriesByDelivererId(int delivererId) {
+        return executor.supply(() -> delegate.getDeliveriesByDelivererId(delivererId));
+    }
+
+    public CompletableFuture<List<OrderSummary>> getDeliverySummariesByDelivererId(int delivererId) {
+        return executor.supply(() -> delegate.getDeliverySummariesByDelivererId(delivererId));
+    }
+
+    public CompletableFuture<Boolean> createOrder(Order order) {
+        return executor.supply(() -> delegate.createOrder(order));
+    }
+
+    public CompletableFuture<Boolean> updateOrderStatus(int orderId, String status, int delivererId) {
+        return executor.supply(() -> delegate.updateOrderStatus(orderId, status, delivererId));
+    }
+
+    public CompletableFuture<Boolean> claimOrder(int orderId, int expectedVersion, int delivererId) {
+        return executor.supply(() -> delegate.claimOrder(orderId, expectedVersion, delivererId));
+    }
+
+    public CompletableFuture<List<Integer>> claimNextOrders(int delivererId, int count) {
+        return executor.supply(() -> delegate.claimNextOrders(delivererId, count));
+    }
+
+    public CompletableFuture<List<SalesReportRow>> getSalesByRestaurant(LocalDate from, LocalDate to) {
+        return executor.supply(() -> delegate.getSalesByRestaurant(from, to));
+    }
+
+    public CompletableFuture<List<SalesReportRow>> getSalesByDay(LocalDate from, LocalDate to) {
+        return executor.supply(() -> delegate.getSalesByDay(from, to));
+    }
+
+    public CompletableFuture<BigDecimal> calculateDelivererEarnings(int delivererId) {
+        return executor.supply(() -> delegate.calculateDelivererEarnings(delivererId));
+    }
+
+    public CompletableFuture<BigDecimal> calculateDelivererEarnings(int delivererId, LocalDateTime from, LocalDateTime to) {
+        return executor.supply(() -> delegate.calculateDelivererEarnings(delivererId, from, to));
+    }
+}
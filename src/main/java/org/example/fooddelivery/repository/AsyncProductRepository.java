@@ -0,0 +1,51 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.ProductSales;
+import org.example.fooddelivery.util.AsyncExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link ProductRepository}; see {@link AsyncExecutor}.
+ */
+public class AsyncProductRepository {
+    private final ProductRepository delegate;
+    private final AsyncExecutor executor;
+
+    public AsyncProductRepository(ProductRepository delegate) {
+        this.delegate = delegate;
+        this.executor = AsyncExecutor.getInstance();
+    }
+
+    public CompletableFuture<List<Product>> getAllProducts() {
+        return executor.supply(delegate::getAllProducts);
+    }
+
+    public CompletableFuture<List<Product>> getProductsByRestaurantId(int restaurantId) {
+        return executor.supply(() -> delegate.getProductsByRestaurantId(restaurantId));
+    }
+
+    public CompletableFuture<Product> getProductById(int id) {
+        return executor.supply(() -> delegate.getProductById(id));
+    }
+
+    public CompletableFuture<Boolean> createProduct(Product product) {
+        return executor.supply(() -> delegate.createProduct(product));
+    }
+
+    public CompletableFuture<Boolean> updateProduct(Product product) {
+        return executor.supply(() -> delegate.updateProduct(product));
+    }
+
+    public CompletableFuture<Boolean> deleteProduct(int id) {
+        return executor.supply(() -> delegate.deleteProduct(id));
+    }
+
+    public CompletableFuture<List<ProductSales>> getPopularProductSales(int limit, LocalDateTime from, LocalDateTime to,
+                                                                       Integer restaurantId) {
+        return executor.supply(() -> delegate.getPopularProductSales(limit, from, to, restaurantId));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.util.AsyncExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link RestaurantRepository}; see {@link AsyncExecutor}.
+ */
+public class AsyncRestaurantRepository {
+    private final RestaurantRepository delegate;
+    private final AsyncExecutor executor;
+
+    public AsyncRestaurantRepository(RestaurantRepository delegate) {
+        this.delegate = delegate;
+        this.executor = AsyncExecutor.getInstance();
+    }
+
+    public CompletableFuture<List<Restaurant>> getAllRestaurants() {
+        return executor.supply(delegate::getAllRestaurants);
+    }
+
+    public CompletableFuture<Restaurant> getRestaurantById(int id) {
+        return executor.supply(() -> delegate.getRestaurantById(id));
+    }
+
+    public CompletableFuture<Boolean> createRestaurant(Restaurant restaurant) {
+        return executor.supply(() -> delegate.createRestaurant(restaurant));
+    }
+
+    public CompletableFuture<Boolean> updateRestaurant(Restaurant restaurant) {
+        return executor.supply(() -> delegate.updateRestaurant(restaurant));
+    }
+
+    public CompletableFuture<Boolean> deleteRestaurant(int id) {
+        return executor.supply(() -> delegate.deleteRestaurant(id));
+    }
+}
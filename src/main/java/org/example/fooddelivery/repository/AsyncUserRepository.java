@@ -0,0 +1,31 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.User;
+import org.example.fooddelivery.util.AsyncExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link UserRepository}; see {@link AsyncExecutor}.
+ */
+public class AsyncUserRepository {
+    private final UserRepository delegate;
+    private final AsyncExecutor executor;
+
+    public AsyncUserRepository(UserRepository delegate) {
+        this.delegate = delegate;
+        this.executor = AsyncExecutor.getInstance();
+    }
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return executor.supply(() -> delegate.getUserById(userId));
+    }
+
+    public CompletableFuture<User> authenticate(String username, String password) {
+        return executor.supply(() -> delegate.authenticate(username, password));
+    }
+
+    public CompletableFuture<Boolean> registerUser(User user) {
+        return executor.supply(() -> delegate.registerUser(user));
+    }
+}
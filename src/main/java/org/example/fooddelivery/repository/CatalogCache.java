@@ -0,0 +1,58 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.util.CacheStats;
+import org.example.fooddelivery.util.TtlCache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared read-through caches for the restaurant and product catalog. Entries are invalidated by
+ * the repositories' mutators; the TTL only bounds staleness for changes made outside this process.
+ */
+public final class CatalogCache {
+    private static final int MAX_SIZE = AppConfig.getInstance().getIntProperty("cache.catalog.maxSize", 1000);
+    private static final long TTL_SECONDS = AppConfig.getInstance().getLongProperty("cache.catalog.ttlSeconds", 300L);
+
+    static final TtlCache<Integer, Restaurant> RESTAURANTS_BY_ID = newCache("restaurantsById");
+    static final TtlCache<String, List<Restaurant>> ALL_RESTAURANTS = newCache("allRestaurants");
+    static final TtlCache<Integer, Product> PRODUCTS_BY_ID = newCache("productsById");
+    static final TtlCache<Integer, List<Product>> PRODUCTS_BY_RESTAURANT = newCache("productsByRestaurant");
+
+    static final String ALL_KEY = "all";
+
+    private CatalogCache() {
+    }
+
+    public static List<CacheStats> getStats() {
+        return List.of(
+                RESTAURANTS_BY_ID.getStats(),
+                ALL_RESTAURANTS.getStats(),
+                PRODUCTS_BY_ID.getStats(),
+                PRODUCTS_BY_RESTAURANT.getStats()
+        );
+    }
+
+    public static void invalidateAll() {
+        RESTAURANTS_BY_ID.invalidateAll();
+        ALL_RESTAURANTS.invalidateAll();
+        PRODUCTS_BY_ID.invalidateAll();
+        PRODUCTS_BY_RESTAURANT.invalidateAll();
+    }
+
+    static Restaurant copyOf(Restaurant restaurant) {
+        return new Restaurant(restaurant.getId(), restaurant.getName(), restaurant.getAddress(), restaurant.getPhone());
+    }
+
+    static Product copyOf(Product product) {
+        Restaurant restaurant = product.getRestaurant() != null ? copyOf(product.getRestaurant()) : null;
+        return new Product(product.getId(), product.getName(), product.getPrice(), product.getDescription(), restaurant);
+    }
+
+    private static <K, V> TtlCache<K, V> newCache(String name) {
+        return new TtlCache<>(name, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+    }
+}
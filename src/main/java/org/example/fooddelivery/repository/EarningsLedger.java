@@ -0,0 +1,79 @@
+package org.example.fooddelivery.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes deliverer earnings when an order enters or leaves {@code DELIVERED}. Runs on the
+ * caller's connection so the ledger commits together with the status change.
+ */
+class EarningsLedger {
+    private static final String BALANCE_UPSERT_SQL = """
+        INSERT INTO deliverer_balances (deliverer_id, delivery_count, total_earnings)
+        VALUES (?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            delivery_count = delivery_count + VALUES(delivery_count),
+            total_earnings = total_earnings + VALUES(total_earnings)
+    """;
+
+    private final BigDecimal commissionRate;
+
+    EarningsLedger(BigDecimal commissionRate) {
+        this.commissionRate = commissionRate;
+    }
+
+    void recordDelivered(Connection conn, int orderId, int delivererId, BigDecimal orderTotal) throws SQLException {
+        BigDecimal amount = orderTotal.multiply(commissionRate).setScale(2, RoundingMode.HALF_UP);
+        String sql = """
+            INSERT INTO deliverer_earnings (deliverer_id, order_id, order_total, commission_rate, amount, earned_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, delivererId);
+            stmt.setInt(2, orderId);
+            stmt.setBigDecimal(3, orderTotal);
+            stmt.setBigDecimal(4, commissionRate);
+            stmt.setBigDecimal(5, amount);
+            stmt.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.executeUpdate();
+        }
+        updateBalance(conn, delivererId, 1, amount);
+    }
+
+    void reverseDelivered(Connection conn, int orderId) throws SQLException {
+        String selectSql = "SELECT deliverer_id, amount FROM deliverer_earnings WHERE order_id = ?";
+        int delivererId;
+        BigDecimal amount;
+        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                delivererId = rs.getInt("deliverer_id");
+                amount = rs.getBigDecimal("amount");
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM deliverer_earnings WHERE order_id = ?")) {
+            stmt.setInt(1, orderId);
+            stmt.executeUpdate();
+        }
+        updateBalance(conn, delivererId, -1, amount.negate());
+    }
+
+    private void updateBalance(Connection conn, int delivererId, int deliveries, BigDecimal amount) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(BALANCE_UPSERT_SQL)) {
+            stmt.setInt(1, delivererId);
+            stmt.setInt(2, deliveries);
+            stmt.setBigDecimal(3, amount);
+            stmt.executeUpdate();
+        }
+    }
+}
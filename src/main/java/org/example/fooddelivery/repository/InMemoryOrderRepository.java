@@ -0,0 +1,482 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.dispatch.PendingOrder;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.OrderCreatedEvent;
+import org.example.fooddelivery.event.OrderStatusChangedEvent;
+import org.example.fooddelivery.metrics.OrderTransitionEvent;
+import org.example.fooddelivery.model.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * {@link OrderRepository} over an {@link InMemoryStore}. Status changes, claims included, replace
+ * the stored order atomically and update the indexes and earnings under the same per-order lock.
+ * Reports are computed by scanning the orders rather than from a rollup.
+ */
+public class InMemoryOrderRepository implements OrderRepository {
+    private static final String CLAIMABLE_STATUS = "PENDING";
+    private static final String CLAIMED_STATUS = SalesRollups.DELIVERED;
+    private static final Comparator<InMemoryStore.StoredOrder> NEWEST_FIRST =
+            Comparator.comparing(InMemoryStore.StoredOrder::orderDate)
+                    .thenComparingInt(InMemoryStore.StoredOrder::id)
+                    .reversed();
+
+    private final InMemoryStore store;
+    private final BigDecimal commissionRate = AppConfig.getInstance().getDeliveryCommissionRate();
+    private final DispatchQueue dispatchQueue = DispatchQueue.getInstance();
+    private final EventBus eventBus = EventBus.getInstance();
+
+    InMemoryOrderRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public List<Order> getAllOrders() {
+        return toOrders(sortedNewestFirst(store.orders.values()));
+    }
+
+    public OrderPage getOrdersPage(OrderCursor after, int pageSize) {
+        List<InMemoryStore.StoredOrder> page = new ArrayList<>();
+        for (InMemoryStore.StoredOrder order : sortedNewestFirst(store.orders.values())) {
+            if (after != null && !isAfter(order, after)) {
+                continue;
+            }
+            if (page.size() == pageSize + 1) {
+                break;
+            }
+            page.add(order);
+        }
+
+        boolean hasMore = page.size() > pageSize;
+        List<Order> orders = toOrders(hasMore ? page.subList(0, pageSize) : page);
+        OrderCursor next = hasMore && !orders.isEmpty() ? OrderCursor.after(orders.get(orders.size() - 1)) : null;
+        return new OrderPage(orders, next);
+    }
+
+    public Stream<Order> streamAllOrders() {
+        return sortedNewestFirst(store.orders.values()).stream().map(this::toOrder);
+    }
+
+    public List<Order> getOrdersByUserId(int userId) {
+        return toOrders(sortedNewestFirst(indexed(InMemoryStore.lookup(store.orderIdsByUser, userId),
+                order -> order.userId() == userId)));
+    }
+
+    public List<Order> getOrdersByStatus(String status) {
+        return toOrders(sortedNewestFirst(indexed(InMemoryStore.lookup(store.orderIdsByStatus, status),
+                order -> order.status().equals(status))));
+    }
+
+    public List<Order> getDeliveriesByDelivererId(int delivererId) {
+        return toOrders(sortedNewestFirst(indexed(InMemoryStore.lookup(store.orderIdsByDeliverer, delivererId),
+                order -> order.delivererId() != null && order.delivererId() == delivererId)));
+    }
+
+    public OrderSummaryPage getOrderSummariesPage(OrderCursor after, int pageSize) {
+        List<OrderSummary> page = new ArrayList<>();
+        for (InMemoryStore.StoredOrder order : sortedNewestFirst(store.orders.values())) {
+            if (after != null && !isAfter(order, after)) {
+                continue;
+            }
+            if (page.size() == pageSize + 1) {
+                break;
+            }
+            page.add(toSummary(order));
+        }
+
+        boolean hasMore = page.size() > pageSize;
+        List<OrderSummary> summaries = hasMore ? page.subList(0, pageSize) : page;
+        OrderSummary last = hasMore && !summaries.isEmpty() ? summaries.get(summaries.size() - 1) : null;
+        return new OrderSummaryPage(summaries, last != null ? new OrderCursor(last.orderDate(), last.id()) : null);
+    }
+
+    public List<OrderSummary> getOrderSummariesByUserId(int userId) {
+        return toSummaries(sortedNewestFirst(indexed(InMemoryStore.lookup(store.orderIdsByUser, userId),
+                order -> order.userId() == userId)));
+    }
+
+    public List<OrderSummary> getDeliverySummariesByDelivererId(int delivererId) {
+        return toSummaries(sortedNewestFirst(indexed(InMemoryStore.lookup(store.orderIdsByDeliverer, delivererId),
+                order -> order.delivererId() != null && order.delivererId() == delivererId)));
+    }
+
+    public List<Order> getOrdersByDate(LocalDate date) {
+        return getOrdersBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    public List<Order> getOrdersByMonth(LocalDate date) {
+        LocalDate firstDay = date.withDayOfMonth(1);
+        return getOrdersBetween(firstDay.atStartOfDay(), firstDay.plusMonths(1).atStartOfDay());
+    }
+
+    public boolean createOrder(Order order) {
+        return createOrders(List.of(order)) == 1;
+    }
+
+    /**
+     * Stores the orders in list order, pricing items at the stored product price. Stops at the
+     * first order with an item whose product no longer exists and returns how many were stored.
+     */
+    public int createOrders(List<Order> orders) {
+        int created = 0;
+        for (Order order : orders) {
+            List<BigDecimal> prices = new ArrayList<>();
+            for (OrderItem item : order.getOrderItems()) {
+                InMemoryStore.StoredProduct product = store.products.get(item.getProductId());
+                if (product == null || product.price() == null) {
+                    return created;
+                }
+                prices.add(product.price());
+            }
+
+            int orderId = store.orderIds.incrementAndGet();
+            List<InMemoryStore.StoredItem> items = new ArrayList<>();
+            for (int i = 0; i < order.getOrderItems().size(); i++) {
+                OrderItem item = order.getOrderItems().get(i);
+                item.setUnitPrice(prices.get(i));
+                item.setId(store.orderItemIds.incrementAndGet());
+                item.setOrderId(orderId);
+                items.add(new InMemoryStore.StoredItem(item.getId(), item.getProductId(), item.getQuantity(),
+                        item.getUnitPrice()));
+            }
+            order.setTotal(order.calculateItemsTotal());
+            order.setId(orderId);
+
+            store.orders.put(orderId, new InMemoryStore.StoredOrder(orderId, order.getUserId(),
+                    order.getRestaurantId(), null, order.getStatus(), order.getOrderDate(), order.getTotal(), 0,
+                    List.copyOf(items)));
+            InMemoryStore.index(store.orderIdsByUser, order.getUserId(), orderId);
+            InMemoryStore.index(store.orderIdsByStatus, order.getStatus(), orderId);
+            publish(new OrderCreatedEvent(orderId, order.getUserId(), order.getRestaurantId(),
+                    order.getStatus(), items.size(), order.getTotal(), order.getOrderDate()));
+            created++;
+        }
+        return created;
+    }
+
+    public boolean updateOrderStatus(int orderId, String status, int delivererId) {
+        InMemoryStore.StoredOrder previous = transition(orderId, order -> true, status, delivererId);
+        if (previous == null) {
+            return false;
+        }
+        publish(new OrderStatusChangedEvent(orderId, previous.status(), status, delivererId));
+        return true;
+    }
+
+    public boolean claimOrder(int orderId, int expectedVersion, int delivererId) {
+        boolean claimed = tryClaim(orderId, expectedVersion, delivererId);
+        if (claimed) {
+            publish(new OrderStatusChangedEvent(orderId, CLAIMABLE_STATUS, CLAIMED_STATUS, delivererId));
+        } else {
+            refreshDispatch(orderId);
+        }
+        return claimed;
+    }
+
+    /**
+     * Works through a snapshot of the pending orders, oldest first, so candidates lost to other
+     * deliverers are simply passed over; no retry rounds are needed.
+     */
+    public List<Integer> claimNextOrders(int delivererId, int count) {
+        List<InMemoryStore.StoredOrder> candidates = pendingOrders();
+        candidates.sort(NEWEST_FIRST.reversed());
+
+        List<Integer> claimed = new ArrayList<>();
+        for (InMemoryStore.StoredOrder candidate : candidates) {
+            if (claimed.size() == count) {
+                break;
+            }
+            if (tryClaim(candidate.id(), candidate.version(), delivererId)) {
+                claimed.add(candidate.id());
+                publish(new OrderStatusChangedEvent(candidate.id(), CLAIMABLE_STATUS, CLAIMED_STATUS,
+                        delivererId));
+            }
+        }
+        return claimed;
+    }
+
+    public List<PendingOrder> getPendingOrders() {
+        List<PendingOrder> pending = new ArrayList<>();
+        for (InMemoryStore.StoredOrder order : pendingOrders()) {
+            pending.add(toPendingOrder(order));
+        }
+        return pending;
+    }
+
+    public Optional<PendingOrder> getPendingOrder(int orderId) {
+        InMemoryStore.StoredOrder order = store.orders.get(orderId);
+        if (order == null || !CLAIMABLE_STATUS.equals(order.status())) {
+            return Optional.empty();
+        }
+        return Optional.of(toPendingOrder(order));
+    }
+
+    public List<SalesReportRow> getSalesByRestaurant(LocalDate from, LocalDate to) {
+        Map<Integer, SalesTotals> totals = new LinkedHashMap<>();
+        for (InMemoryStore.StoredOrder order : ordersBetween(from.atStartOfDay(), to.atStartOfDay())) {
+            totals.computeIfAbsent(order.restaurantId(), id -> new SalesTotals()).add(order);
+        }
+
+        List<SalesReportRow> rows = new ArrayList<>();
+        for (Map.Entry<Integer, SalesTotals> entry : totals.entrySet()) {
+            Restaurant restaurant = store.restaurants.get(entry.getKey());
+            rows.add(entry.getValue().toRow(restaurant != null ? restaurant.getName() : "Restaurant #" + entry.getKey()));
+        }
+        rows.sort(Comparator.comparing(SalesReportRow::revenue).reversed());
+        return rows;
+    }
+
+    public List<SalesReportRow> getSalesByDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, SalesTotals> totals = new LinkedHashMap<>();
+        List<InMemoryStore.StoredOrder> orders = ordersBetween(from.atStartOfDay(), to.atStartOfDay());
+        orders.sort(Comparator.comparing(InMemoryStore.StoredOrder::orderDate));
+        for (InMemoryStore.StoredOrder order : orders) {
+            totals.computeIfAbsent(order.orderDate().toLocalDate(), day -> new SalesTotals()).add(order);
+        }
+
+        List<SalesReportRow> rows = new ArrayList<>();
+        for (Map.Entry<LocalDate, SalesTotals> entry : totals.entrySet()) {
+            rows.add(entry.getValue().toRow(entry.getKey().toString()));
+        }
+        return rows;
+    }
+
+    public BigDecimal calculateDelivererEarnings(int delivererId) {
+        return calculateDelivererEarnings(delivererId, LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+
+    public BigDecimal calculateDelivererEarnings(int delivererId, LocalDateTime from, LocalDateTime to) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (InMemoryStore.Earning earning : store.earningsByOrder.values()) {
+            if (earning.delivererId() == delivererId
+                    && !earning.earnedAt().isBefore(from) && earning.earnedAt().isBefore(to)) {
+                total = total.add(earning.amount());
+            }
+        }
+        return total;
+    }
+
+    public int getProductOrderCount(int productId) {
+        int count = 0;
+        for (InMemoryStore.StoredOrder order : store.orders.values()) {
+            for (InMemoryStore.StoredItem item : order.items()) {
+                if (item.productId() == productId) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public BigDecimal getProductRevenue(int productId) {
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (InMemoryStore.StoredOrder order : store.orders.values()) {
+            if (!SalesRollups.DELIVERED.equals(order.status())) {
+                continue;
+            }
+            for (InMemoryStore.StoredItem item : order.items()) {
+                if (item.productId() == productId) {
+                    revenue = revenue.add(item.subtotal());
+                }
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Publishes the change on the event bus and records it for Flight Recorder.
+     */
+    private void publish(OrderStatusChangedEvent event) {
+        eventBus.publish(event);
+        OrderTransitionEvent.emit(event.orderId(), event.oldStatus(), event.newStatus(), event.delivererId());
+    }
+
+    private void publish(OrderCreatedEvent event) {
+        eventBus.publish(event);
+        OrderTransitionEvent.emit(event.orderId(), null, event.status(), 0);
+    }
+
+    private boolean tryClaim(int orderId, int expectedVersion, int delivererId) {
+        return transition(orderId,
+                order -> CLAIMABLE_STATUS.equals(order.status()) && order.version() == expectedVersion,
+                CLAIMED_STATUS, delivererId) != null;
+    }
+
+    /**
+     * Moves the order to {@code status} if {@code condition} holds for its current state. Returns
+     * the state it replaced, or null when there is no such order or the condition failed.
+     */
+    private InMemoryStore.StoredOrder transition(int orderId, Predicate<InMemoryStore.StoredOrder> condition,
+                                                 String status, int delivererId) {
+        InMemoryStore.StoredOrder[] previous = new InMemoryStore.StoredOrder[1];
+        store.orders.computeIfPresent(orderId, (id, current) -> {
+            if (!condition.test(current)) {
+                return current;
+            }
+            InMemoryStore.StoredOrder updated = current.withStatus(status, delivererId);
+            applyTransitionEffects(current, updated);
+            previous[0] = current;
+            return updated;
+        });
+        return previous[0];
+    }
+
+    private void applyTransitionEffects(InMemoryStore.StoredOrder before, InMemoryStore.StoredOrder after) {
+        InMemoryStore.unindex(store.orderIdsByStatus, before.status(), before.id());
+        InMemoryStore.index(store.orderIdsByStatus, after.status(), after.id());
+        if (before.delivererId() != null) {
+            InMemoryStore.unindex(store.orderIdsByDeliverer, before.delivererId(), before.id());
+        }
+        InMemoryStore.index(store.orderIdsByDeliverer, after.delivererId(), after.id());
+
+        boolean wasDelivered = SalesRollups.DELIVERED.equals(before.status());
+        boolean isDelivered = SalesRollups.DELIVERED.equals(after.status());
+        boolean delivererChanged = !Objects.equals(before.delivererId(), after.delivererId());
+        if (isDelivered && (!wasDelivered || delivererChanged)) {
+            // a reassigned delivery replaces the previous deliverer's earning
+            BigDecimal amount = after.total().multiply(commissionRate).setScale(2, RoundingMode.HALF_UP);
+            store.earningsByOrder.put(after.id(),
+                    new InMemoryStore.Earning(after.delivererId(), amount, LocalDateTime.now()));
+        } else if (wasDelivered && !isDelivered) {
+            store.earningsByOrder.remove(after.id());
+        }
+    }
+
+    private void refreshDispatch(int orderId) {
+        Optional<PendingOrder> pending = getPendingOrder(orderId);
+        if (pending.isPresent()) {
+            dispatchQueue.add(pending.get());
+        } else {
+            dispatchQueue.remove(orderId);
+        }
+    }
+
+    private List<InMemoryStore.StoredOrder> pendingOrders() {
+        return indexed(InMemoryStore.lookup(store.orderIdsByStatus, CLAIMABLE_STATUS),
+                order -> CLAIMABLE_STATUS.equals(order.status()));
+    }
+
+    private PendingOrder toPendingOrder(InMemoryStore.StoredOrder order) {
+        Restaurant restaurant = store.restaurants.get(order.restaurantId());
+        return new PendingOrder(order.id(), order.restaurantId(), restaurant != null ? restaurant.getName() : null,
+                order.items().size(), order.total(), order.orderDate(), order.version());
+    }
+
+    private List<Order> getOrdersBetween(LocalDateTime from, LocalDateTime to) {
+        return toOrders(sortedNewestFirst(ordersBetween(from, to)));
+    }
+
+    private List<InMemoryStore.StoredOrder> ordersBetween(LocalDateTime from, LocalDateTime to) {
+        List<InMemoryStore.StoredOrder> orders = new ArrayList<>();
+        for (InMemoryStore.StoredOrder order : store.orders.values()) {
+            if (!order.orderDate().isBefore(from) && order.orderDate().isBefore(to)) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private List<InMemoryStore.StoredOrder> indexed(Collection<Integer> ids,
+                                                   Predicate<InMemoryStore.StoredOrder> stillMatches) {
+        List<InMemoryStore.StoredOrder> orders = new ArrayList<>();
+        for (int id : ids) {
+            InMemoryStore.StoredOrder order = store.orders.get(id);
+            if (order != null && stillMatches.test(order)) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private static List<InMemoryStore.StoredOrder> sortedNewestFirst(Collection<InMemoryStore.StoredOrder> orders) {
+        List<InMemoryStore.StoredOrder> sorted = new ArrayList<>(orders);
+        sorted.sort(NEWEST_FIRST);
+        return sorted;
+    }
+
+    private static boolean isAfter(InMemoryStore.StoredOrder order, OrderCursor cursor) {
+        int byDate = order.orderDate().compareTo(cursor.orderDate());
+        return byDate < 0 || (byDate == 0 && order.id() < cursor.id());
+    }
+
+    private List<Order> toOrders(List<InMemoryStore.StoredOrder> stored) {
+        List<Order> orders = new ArrayList<>(stored.size());
+        for (InMemoryStore.StoredOrder order : stored) {
+            orders.add(toOrder(order));
+        }
+        return orders;
+    }
+
+    private List<OrderSummary> toSummaries(List<InMemoryStore.StoredOrder> stored) {
+        List<OrderSummary> summaries = new ArrayList<>(stored.size());
+        for (InMemoryStore.StoredOrder order : stored) {
+            summaries.add(toSummary(order));
+        }
+        return summaries;
+    }
+
+    private OrderSummary toSummary(InMemoryStore.StoredOrder stored) {
+        User user = store.users.get(stored.userId());
+        Restaurant restaurant = store.restaurants.get(stored.restaurantId());
+        return new OrderSummary(stored.id(), user != null ? user.getUsername() : null,
+                restaurant != null ? restaurant.getName() : null, stored.status(), stored.orderDate(),
+                stored.items().size(), stored.total());
+    }
+
+    /**
+     * The same graph the JDBC repository builds: items whose product no longer exists are left out.
+     */
+    private Order toOrder(InMemoryStore.StoredOrder stored) {
+        User user = store.users.get(stored.userId());
+        Restaurant restaurant = store.restaurants.get(stored.restaurantId());
+        List<OrderItem> items = new ArrayList<>();
+        for (InMemoryStore.StoredItem item : stored.items()) {
+            InMemoryStore.StoredProduct product = store.products.get(item.productId());
+            if (product != null) {
+                items.add(new OrderItem(item.id(), stored.id(), store.toProduct(product), item.quantity(),
+                        item.unitPrice()));
+            }
+        }
+
+        Order order = new Order(stored.id(), user != null ? InMemoryStore.copyOf(user) : null,
+                restaurant != null ? CatalogCache.copyOf(restaurant) : null, items, stored.orderDate(), stored.status());
+        order.setTotal(stored.total());
+        order.setVersion(stored.version());
+        return order;
+    }
+
+    private static class SalesTotals {
+        int orderCount, itemCount, deliveredCount;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal deliveredRevenue = BigDecimal.ZERO;
+
+        void add(InMemoryStore.StoredOrder order) {
+            orderCount++;
+            itemCount += order.items().size();
+            revenue = revenue.add(order.total());
+            if (SalesRollups.DELIVERED.equals(order.status())) {
+                deliveredCount++;
+                deliveredRevenue = deliveredRevenue.add(order.total());
+            }
+        }
+
+        SalesReportRow toRow(String label) {
+            return new SalesReportRow(label, orderCount, itemCount, revenue, deliveredCount, deliveredRevenue);
+        }
+    }
+}
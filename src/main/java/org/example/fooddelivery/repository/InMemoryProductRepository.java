@@ -0,0 +1,133 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.event.ChangeKind;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.ProductChangedEvent;
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.ProductSales;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ProductRepository} over an {@link InMemoryStore}. Menus come from a per-restaurant
+ * index; the popularity reports scan the stored orders.
+ */
+public class InMemoryProductRepository implements ProductRepository {
+    private static final int POPULAR_LIMIT = 10;
+
+    private final InMemoryStore store;
+    private final EventBus eventBus;
+
+    InMemoryProductRepository(InMemoryStore store) {
+        this.store = store;
+        this.eventBus = EventBus.getInstance();
+    }
+
+    public List<Product> getAllProducts() {
+        List<Product> products = new ArrayList<>();
+        for (InMemoryStore.StoredProduct stored : store.products.values()) {
+            products.add(store.toProduct(stored));
+        }
+        products.sort(Comparator.comparingInt(Product::getId));
+        return products;
+    }
+
+    public List<Product> getProductsByRestaurantId(int restaurantId) {
+        List<Product> products = new ArrayList<>();
+        for (int id : InMemoryStore.lookup(store.productIdsByRestaurant, restaurantId)) {
+            InMemoryStore.StoredProduct stored = store.products.get(id);
+            if (stored != null && stored.restaurantId() == restaurantId) {
+                products.add(store.toProduct(stored));
+            }
+        }
+        products.sort(Comparator.comparingInt(Product::getId));
+        return products;
+    }
+
+    public Product getProductById(int id) {
+        InMemoryStore.StoredProduct stored = store.products.get(id);
+        return stored != null ? store.toProduct(stored) : null;
+    }
+
+    public boolean createProduct(Product product) {
+        int id = store.productIds.incrementAndGet();
+        InMemoryStore.StoredProduct stored = InMemoryStore.StoredProduct.of(product, id, product.getRestaurantId());
+        store.products.put(id, stored);
+        InMemoryStore.index(store.productIdsByRestaurant, stored.restaurantId(), id);
+        product.setId(id);
+        eventBus.publish(new ProductChangedEvent(id, stored.restaurantId(), ChangeKind.CREATED));
+        return true;
+    }
+
+    public boolean updateProduct(Product product) {
+        int restaurantId = product.getRestaurant().getId();
+        InMemoryStore.StoredProduct updated = store.products.computeIfPresent(product.getId(), (id, current) -> {
+            if (current.restaurantId() != restaurantId) {
+                InMemoryStore.unindex(store.productIdsByRestaurant, current.restaurantId(), id);
+                InMemoryStore.index(store.productIdsByRestaurant, restaurantId, id);
+            }
+            return InMemoryStore.StoredProduct.of(product, id, restaurantId);
+        });
+        if (updated == null) {
+            return false;
+        }
+        eventBus.publish(new ProductChangedEvent(product.getId(), restaurantId, ChangeKind.UPDATED));
+        return true;
+    }
+
+    public boolean deleteProduct(int id) {
+        InMemoryStore.StoredProduct removed = store.products.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        InMemoryStore.unindex(store.productIdsByRestaurant, removed.restaurantId(), id);
+        eventBus.publish(new ProductChangedEvent(id, removed.restaurantId(), ChangeKind.DELETED));
+        return true;
+    }
+
+    public List<Product> getPopularProducts() {
+        Map<Integer, Integer> lineCounts = new HashMap<>();
+        for (InMemoryStore.StoredOrder order : store.orders.values()) {
+            for (InMemoryStore.StoredItem item : order.items()) {
+                lineCounts.merge(item.productId(), 1, Integer::sum);
+            }
+        }
+
+        List<Product> products = getAllProducts();
+        products.sort(Comparator.comparingInt((Product product) -> lineCounts.getOrDefault(product.getId(), 0)).reversed());
+        return new ArrayList<>(products.subList(0, Math.min(POPULAR_LIMIT, products.size())));
+    }
+
+    public List<ProductSales> getPopularProductSales(int limit, LocalDateTime from, LocalDateTime to, Integer restaurantId) {
+        Map<Integer, Integer> lineCounts = new HashMap<>();
+        Map<Integer, BigDecimal> revenue = new HashMap<>();
+        for (InMemoryStore.StoredOrder order : store.orders.values()) {
+            if ((from != null && order.orderDate().isBefore(from)) || (to != null && !order.orderDate().isBefore(to))) {
+                continue;
+            }
+            boolean delivered = SalesRollups.DELIVERED.equals(order.status());
+            for (InMemoryStore.StoredItem item : order.items()) {
+                lineCounts.merge(item.productId(), 1, Integer::sum);
+                revenue.merge(item.productId(), delivered ? item.subtotal() : BigDecimal.ZERO, BigDecimal::add);
+            }
+        }
+
+        List<ProductSales> results = new ArrayList<>();
+        for (InMemoryStore.StoredProduct stored : store.products.values()) {
+            if (restaurantId != null && stored.restaurantId() != restaurantId) {
+                continue;
+            }
+            results.add(new ProductSales(store.toProduct(stored), lineCounts.getOrDefault(stored.id(), 0),
+                    revenue.getOrDefault(stored.id(), BigDecimal.ZERO)));
+        }
+        results.sort(Comparator.comparingInt(ProductSales::orderCount).reversed()
+                .thenComparingInt(sales -> sales.product().getId()));
+        return new ArrayList<>(results.subList(0, Math.min(limit, results.size())));
+    }
+}
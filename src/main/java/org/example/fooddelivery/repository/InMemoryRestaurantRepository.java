@@ -0,0 +1,65 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.event.ChangeKind;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.RestaurantChangedEvent;
+import org.example.fooddelivery.model.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link RestaurantRepository} over an {@link InMemoryStore}. Publishes the same change events
+ * as the JDBC implementation.
+ */
+public class InMemoryRestaurantRepository implements RestaurantRepository {
+    private static final Comparator<Restaurant> BY_NAME =
+            Comparator.comparing(Restaurant::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final InMemoryStore store;
+    private final EventBus eventBus;
+
+    InMemoryRestaurantRepository(InMemoryStore store) {
+        this.store = store;
+        this.eventBus = EventBus.getInstance();
+    }
+
+    public List<Restaurant> getAllRestaurants() {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (Restaurant restaurant : store.restaurants.values()) {
+            restaurants.add(CatalogCache.copyOf(restaurant));
+        }
+        restaurants.sort(BY_NAME);
+        return restaurants;
+    }
+
+    public Restaurant getRestaurantById(int id) {
+        Restaurant restaurant = store.restaurants.get(id);
+        return restaurant != null ? CatalogCache.copyOf(restaurant) : null;
+    }
+
+    public boolean createRestaurant(Restaurant restaurant) {
+        int id = store.restaurantIds.incrementAndGet();
+        restaurant.setId(id);
+        store.restaurants.put(id, CatalogCache.copyOf(restaurant));
+        eventBus.publish(new RestaurantChangedEvent(id, ChangeKind.CREATED));
+        return true;
+    }
+
+    public boolean updateRestaurant(Restaurant restaurant) {
+        boolean updated = store.restaurants.replace(restaurant.getId(), CatalogCache.copyOf(restaurant)) != null;
+        if (updated) {
+            eventBus.publish(new RestaurantChangedEvent(restaurant.getId(), ChangeKind.UPDATED));
+        }
+        return updated;
+    }
+
+    public boolean deleteRestaurant(int id) {
+        boolean deleted = store.restaurants.remove(id) != null;
+        if (deleted) {
+            eventBus.publish(new RestaurantChangedEvent(id, ChangeKind.DELETED));
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The tables behind the in-memory repositories: concurrent hash maps keyed by id, the secondary
+ * indexes the screens look up by, and one id sequence per table. Orders are immutable snapshots
+ * replaced through {@link ConcurrentHashMap#compute}, so a change to one order is atomic without
+ * a global lock. Index entries may briefly point at an order that no longer matches, so readers
+ * re-check the order itself.
+ */
+final class InMemoryStore {
+    final Map<Integer, User> users = new ConcurrentHashMap<>();
+    final Map<String, User> usersByName = new ConcurrentHashMap<>();
+    final Map<Integer, Restaurant> restaurants = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<Integer, StoredProduct> products = new ConcurrentHashMap<>();
+    final Map<Integer, Set<Integer>> productIdsByRestaurant = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<Integer, StoredOrder> orders = new ConcurrentHashMap<>();
+    final Map<Integer, Set<Integer>> orderIdsByUser = new ConcurrentHashMap<>();
+    final Map<Integer, Set<Integer>> orderIdsByDeliverer = new ConcurrentHashMap<>();
+    final Map<String, Set<Integer>> orderIdsByStatus = new ConcurrentHashMap<>();
+    final Map<Integer, Earning> earningsByOrder = new ConcurrentHashMap<>();
+
+    final AtomicInteger userIds = new AtomicInteger();
+    final AtomicInteger restaurantIds = new AtomicInteger();
+    final AtomicInteger productIds = new AtomicInteger();
+    final AtomicInteger orderIds = new AtomicInteger();
+    final AtomicInteger orderItemIds = new AtomicInteger();
+
+    static <K> void index(Map<K, Set<Integer>> index, K key, int id) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    static <K> void unindex(Map<K, Set<Integer>> index, K key, int id) {
+        Set<Integer> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    static <K> Set<Integer> lookup(Map<K, Set<Integer>> index, K key) {
+        return index.getOrDefault(key, Set.of());
+    }
+
+    /**
+     * The product as the JDBC repository returns it: the restaurant carries only id and name.
+     */
+    Product toProduct(StoredProduct stored) {
+        Restaurant restaurant = restaurants.get(stored.restaurantId());
+        return new Product(stored.id(), stored.name(), stored.price(), stored.description(),
+                new Restaurant(stored.restaurantId(), restaurant != null ? restaurant.getName() : null, null, null));
+    }
+
+    static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    record StoredProduct(int id, String name, String description, BigDecimal price, int restaurantId) {
+
+        static StoredProduct of(Product product, int id, int restaurantId) {
+            return new StoredProduct(id, product.getName(), product.getDescription(), product.getPrice(), restaurantId);
+        }
+    }
+
+    record StoredOrder(int id, int userId, int restaurantId, Integer delivererId, String status,
+                       LocalDateTime orderDate, BigDecimal total, int version, List<StoredItem> items) {
+
+        StoredOrder withStatus(String newStatus, int newDelivererId) {
+            return new StoredOrder(id, userId, restaurantId, newDelivererId, newStatus, orderDate, total,
+                    version + 1, items);
+        }
+    }
+
+    record StoredItem(int id, int productId, int quantity, BigDecimal unitPrice) {
+
+        BigDecimal subtotal() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    record Earning(int delivererId, BigDecimal amount, LocalDateTime earnedAt) {
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.User;
+import org.example.fooddelivery.util.PasswordUtils;
+
+/**
+ * {@link UserRepository} over an {@link InMemoryStore}. Usernames are unique, as in the database.
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private final InMemoryStore store;
+
+    InMemoryUserRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    public User getUserById(int userId) {
+        User user = store.users.get(userId);
+        return user != null ? InMemoryStore.copyOf(user) : null;
+    }
+
+    public User authenticate(String username, String password) {
+        User user = store.usersByName.get(username);
+        // an unknown username is still checked, against a dummy hash, so it takes as long as a wrong password
+        if (!PasswordUtils.verify(password, user != null ? user.getPassword() : null)) {
+            return null;
+        }
+        if (PasswordUtils.needsRehash(user.getPassword())) {
+            User rehashed = new User(user.getId(), user.getUsername(), PasswordUtils.hash(password), user.getRole());
+            if (store.usersByName.replace(username, user, rehashed)) {
+                store.users.replace(user.getId(), user, rehashed);
+                user = rehashed;
+            }
+        }
+        return InMemoryStore.copyOf(user);
+    }
+
+    public boolean registerUser(User user) {
+        int id = store.userIds.incrementAndGet();
+        User stored = new User(id, user.getUsername(), PasswordUtils.hash(user.getPassword()), user.getRole());
+        if (store.usersByName.putIfAbsent(user.getUsername(), stored) != null) {
+            return false;
+        }
+        store.users.put(id, stored);
+        user.setId(id);
+        return true;
+    }
+}
@@ -0,0 +1,1038 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.dispatch.PendingOrder;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.OrderCreatedEvent;
+import org.example.fooddelivery.event.OrderStatusChangedEvent;
+import org.example.fooddelivery.metrics.OrderTransitionEvent;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.*;
+import org.example.fooddelivery.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class JdbcOrderRepository implements OrderRepository {
+    private static final int ROWS_PER_INSERT = 100;
+    private static final int ORDERS_PER_TRANSACTION = 1000;
+    private static final int MAX_IN_PARAMS = 500;
+    private static final String CLAIMABLE_STATUS = "PENDING";
+    // Accepting an order is the whole delivery workflow in this application.
+    private static final String CLAIMED_STATUS = SalesRollups.DELIVERED;
+    private static final int CLAIM_ROUNDS = 3;
+
+    // One row per order: the list columns plus the number of order lines, without loading the lines.
+    private static final String SUMMARY_SELECT = """
+        SELECT o.id, u.username, r.name AS restaurant_name, o.status, o.order_date, o.total,
+               COUNT(oi.id) AS item_count
+        FROM orders o
+        LEFT JOIN users u ON u.id = o.user_id
+        LEFT JOIN restaurants r ON r.id = o.restaurant_id
+        LEFT JOIN order_items oi ON oi.order_id = o.id
+    """;
+    private static final String SUMMARY_GROUP_AND_ORDER = """
+        GROUP BY o.id, u.username, r.name, o.status, o.order_date, o.total
+        ORDER BY o.order_date DESC, o.id DESC
+    """;
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcOrderRepository.class.getName());
+    private static final AtomicBoolean CURSOR_FETCH_WARNED = new AtomicBoolean();
+
+    private final DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+    private final int streamFetchSize = AppConfig.getInstance().getOrderStreamFetchSize();
+    private final OrderGraphLoader graphLoader = new OrderGraphLoader(dbConnection);
+    private final SalesRollups salesRollups = new SalesRollups();
+    private final EarningsLedger earningsLedger = new EarningsLedger(AppConfig.getInstance().getDeliveryCommissionRate());
+    private final DispatchQueue dispatchQueue = DispatchQueue.getInstance();
+    private final EventBus eventBus = EventBus.getInstance();
+
+    public List<Order> getAllOrders() {
+        List<OrderTemp> tempOrders = new ArrayList<>();
+        String sql = "SELECT * FROM orders ORDER BY order_date DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                tempOrders.add(mapResultSetToOrderTemp(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+
+        return mapTempOrdersToOrders(tempOrders);
+    }
+
+    /**
+     * Returns up to {@code pageSize} orders, newest first, starting strictly after {@code after}
+     * (or from the newest order when {@code after} is null). Uses keyset pagination on
+     * {@code (order_date, id)}, so every page costs the same regardless of how deep it is.
+     */
+    public OrderPage getOrdersPage(OrderCursor after, int pageSize) {
+        List<OrderTemp> tempOrders = new ArrayList<>();
+        String sql = after == null
+                ? "SELECT * FROM orders ORDER BY order_date DESC, id DESC LIMIT ?"
+                : """
+                    SELECT * FROM orders
+                    WHERE order_date < ? OR (order_date = ? AND id < ?)
+                    ORDER BY order_date DESC, id DESC
+                    LIMIT ?
+                  """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp cursorDate = Timestamp.valueOf(after.orderDate());
+                stmt.setTimestamp(index++, cursorDate);
+                stmt.setTimestamp(index++, cursorDate);
+                stmt.setInt(index++, after.id());
+            }
+            stmt.setInt(index, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tempOrders.add(mapResultSetToOrderTemp(rs));
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new OrderPage(new ArrayList<>(), null);
+        }
+
+        boolean hasMore = tempOrders.size() > pageSize;
+        if (hasMore) {
+            tempOrders = tempOrders.subList(0, pageSize);
+        }
+        List<Order> orders = mapTempOrdersToOrders(tempOrders);
+        OrderCursor next = hasMore && !orders.isEmpty() ? OrderCursor.after(orders.get(orders.size() - 1)) : null;
+        return new OrderPage(orders, next);
+    }
+
+    /**
+     * Streams every order, newest first, over a single forward-only result set. Orders are
+     * materialized in batches of the configured fetch size, so memory stays constant no matter
+     * how long the history is. The stream holds a single pooled connection, which also serves the
+     * per-batch user, restaurant and item lookups, and must be closed.
+     * <p>
+     * MySQL Connector/J only fetches incrementally with {@code useCursorFetch=true} on the
+     * {@code db.url}; without it the whole result set is buffered, which is logged once. A database
+     * error while the stream is consumed surfaces as a {@link RepositoryException}.
+     */
+    public Stream<Order> streamAllOrders() {
+        String sql = "SELECT * FROM orders ORDER BY order_date DESC, id DESC";
+        warnIfCursorFetchDisabled();
+        Connection conn = dbConnection.getConnection();
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(streamFetchSize);
+            ResultSet rs = stmt.executeQuery();
+
+            OrderBatchIterator iterator = new OrderBatchIterator(conn, rs, Math.max(1, streamFetchSize));
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false
+            ).onClose(() -> closeQuietly(rs, stmt, conn));
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            closeQuietly(null, null, conn);
+            return Stream.empty();
+        }
+    }
+
+    private static void warnIfCursorFetchDisabled() {
+        String url = AppConfig.getInstance().getDbUrl();
+        if (url != null && url.startsWith("jdbc:mysql:") && !url.contains("useCursorFetch=true")
+                && CURSOR_FETCH_WARNED.compareAndSet(false, true)) {
+            LOGGER.warning("db.url has no useCursorFetch=true; streamAllOrders() will buffer every order row in memory");
+        }
+    }
+
+    public List<Order> getOrdersByUserId(int userId) {
+        List<OrderTemp> tempOrders = new ArrayList<>();
+        String sql = "SELECT * FROM orders WHERE user_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tempOrders.add(mapResultSetToOrderTemp(rs));
+            }
+
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+
+        return mapTempOrdersToOrders(tempOrders);
+    }
+
+
+    public List<Order> getOrdersByStatus(String status) {
+        List<OrderTemp> tempOrders = new ArrayList<>();
+        String sql = "SELECT * FROM orders WHERE status = ? ORDER BY order_date DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tempOrders.add(mapResultSetToOrderTemp(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+
+        return mapTempOrdersToOrders(tempOrders);
+    }
+
+    public List<Order> getDeliveriesByDelivererId(int delivererId) {
+        List<OrderTemp> tempOrders = new ArrayList<>();
+        String sql = "SELECT * FROM orders WHERE deliverer_id = ? ORDER BY order_date DESC";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, delivererId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tempOrders.add(mapResultSetToOrderTemp(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+
+        return mapTempOrdersToOrders(tempOrders);
+
+    }
+
+    /**
+     * Keyset pagination as in {@link #getOrdersPage}, over {@link #SUMMARY_SELECT}.
+     */
+    public OrderSummaryPage getOrderSummariesPage(OrderCursor after, int pageSize) {
+        String sql = SUMMARY_SELECT
+                + (after == null ? "" : " WHERE o.order_date < ? OR (o.order_date = ? AND o.id < ?)")
+                + SUMMARY_GROUP_AND_ORDER + " LIMIT ?";
+        List<OrderSummary> summaries;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp cursorDate = Timestamp.valueOf(after.orderDate());
+                stmt.setTimestamp(index++, cursorDate);
+                stmt.setTimestamp(index++, cursorDate);
+                stmt.setInt(index++, after.id());
+            }
+            stmt.setInt(index, pageSize + 1);
+            summaries = readSummaries(stmt);
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new OrderSummaryPage(new ArrayList<>(), null);
+        }
+
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+        OrderSummary last = hasMore && !summaries.isEmpty() ? summaries.get(summaries.size() - 1) : null;
+        return new OrderSummaryPage(summaries, last != null ? new OrderCursor(last.orderDate(), last.id()) : null);
+    }
+
+    public List<OrderSummary> getOrderSummariesByUserId(int userId) {
+        return getSummariesWhere("o.user_id = ?", userId);
+    }
+
+    public List<OrderSummary> getDeliverySummariesByDelivererId(int delivererId) {
+        return getSummariesWhere("o.deliverer_id = ?", delivererId);
+    }
+
+    private List<OrderSummary> getSummariesWhere(String condition, int id) {
+        String sql = SUMMARY_SELECT + " WHERE " + condition + SUMMARY_GROUP_AND_ORDER;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            return readSummaries(stmt);
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<OrderSummary> readSummaries(PreparedStatement stmt) throws SQLException {
+        List<OrderSummary> summaries = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                summaries.add(new OrderSummary(
+                        rs.getInt("id"),
+                        rs.getString("username"),
+                        rs.getString("restaurant_name"),
+                        rs.getString("status"),
+                        rs.getTimestamp("order_date").toLocalDateTime(),
+                        rs.getInt("item_count"),
+                        rs.getBigDecimal("total")
+                ));
+            }
+        }
+        return summaries;
+    }
+
+    public List<Order> getOrdersByDate(LocalDate date) {
+        return getOrdersBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    public List<Order> getOrdersByMonth(LocalDate date) {
+        LocalDate firstDay = date.withDayOfMonth(1);
+        return getOrdersBetween(firstDay.atStartOfDay(), firstDay.plusMonths(1).atStartOfDay());
+    }
+
+    public boolean createOrder(Order order) {
+        return createOrders(List.of(order)) == 1;
+    }
+
+    /**
+     * Inserts orders together with their items. Each group of up to {@value #ORDERS_PER_TRANSACTION}
+     * orders is written in one transaction using multi-row inserts, so an order is never stored
+     * without its items. Returns how many orders were stored; on failure the failing group is rolled
+     * back and the remaining orders are not attempted.
+     */
+    public int createOrders(List<Order> orders) {
+        int created = 0;
+        for (int from = 0; from < orders.size(); from += ORDERS_PER_TRANSACTION) {
+            List<Order> group = orders.subList(from, Math.min(from + ORDERS_PER_TRANSACTION, orders.size()));
+            if (!insertOrderGroup(group)) {
+                break;
+            }
+            created += group.size();
+        }
+        return created;
+    }
+
+    public boolean updateOrderStatus(int orderId, String status, int delivererId) {
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                String oldStatus = applyStatusChange(conn, orderId, status, delivererId);
+                conn.commit();
+                if (oldStatus == null) {
+                    return false;
+                }
+                publish(new OrderStatusChangedEvent(orderId, oldStatus, status, delivererId));
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    /**
+     * Assigns a pending order to {@code delivererId} if it is still pending and still at
+     * {@code expectedVersion}, the version the deliverer saw when the order was listed. The check
+     * and the write are one conditional UPDATE, so no lock is held while the deliverer decides and
+     * two deliverers can never both win. Returns false when someone else got there first.
+     */
+    public boolean claimOrder(int orderId, int expectedVersion, int delivererId) {
+        try (Connection conn = dbConnection.getConnection()) {
+            boolean claimed;
+            conn.setAutoCommit(false);
+            try {
+                claimed = tryClaim(conn, orderId, expectedVersion, delivererId);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            if (claimed) {
+                publish(new OrderStatusChangedEvent(orderId, CLAIMABLE_STATUS, CLAIMED_STATUS, delivererId));
+            } else {
+                // the queue offered a stale entry, possibly changed by another process
+                refreshDispatch(conn, orderId);
+            }
+            return claimed;
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    /**
+     * Claims up to {@code count} of the oldest pending orders for {@code delivererId} and returns
+     * the ids it got. Candidates taken by other deliverers in the meantime are skipped and the
+     * next ones are tried, for a few rounds, so the result can hold fewer than {@code count} ids.
+     */
+    public List<Integer> claimNextOrders(int delivererId, int count) {
+        List<Integer> claimed = new ArrayList<>();
+        String sql = "SELECT id, version FROM orders WHERE status = ? ORDER BY order_date, id LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            for (int round = 0; round < CLAIM_ROUNDS && claimed.size() < count; round++) {
+                List<int[]> candidates = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, CLAIMABLE_STATUS);
+                    // over-fetch so a few lost races do not cost a whole extra round
+                    stmt.setInt(2, (count - claimed.size()) * 2);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            candidates.add(new int[]{rs.getInt("id"), rs.getInt("version")});
+                        }
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+
+                conn.setAutoCommit(false);
+                List<Integer> won = new ArrayList<>();
+                try {
+                    for (int[] candidate : candidates) {
+                        if (claimed.size() + won.size() == count) {
+                            break;
+                        }
+                        if (tryClaim(conn, candidate[0], candidate[1], delivererId)) {
+                            won.add(candidate[0]);
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                for (int orderId : won) {
+                    publish(new OrderStatusChangedEvent(orderId, CLAIMABLE_STATUS, CLAIMED_STATUS, delivererId));
+                }
+                claimed.addAll(won);
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return claimed;
+    }
+
+    /**
+     * Everything a deliverer needs to pick a pending order, without loading users or items.
+     * Used to fill the {@link DispatchQueue} at startup.
+     */
+    public List<PendingOrder> getPendingOrders() {
+        try (Connection conn = dbConnection.getConnection()) {
+            return loadPendingOrders(conn, null);
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * The order as a dispatch queue entry, or empty when it is not pending (or cannot be read).
+     */
+    public Optional<PendingOrder> getPendingOrder(int orderId) {
+        try (Connection conn = dbConnection.getConnection()) {
+            return loadPendingOrders(conn, orderId).stream().findFirst();
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sales totals per restaurant for {@code from <= day < to}, read from the daily rollup.
+     */
+    public List<SalesReportRow> getSalesByRestaurant(LocalDate from, LocalDate to) {
+        String sql = """
+            SELECT ds.restaurant_id, r.name AS label,
+                   SUM(ds.order_count) AS order_count, SUM(ds.item_count) AS item_count, SUM(ds.revenue) AS revenue,
+                   SUM(ds.delivered_count) AS delivered_count, SUM(ds.delivered_revenue) AS delivered_revenue
+            FROM daily_sales ds
+            LEFT JOIN restaurants r ON ds.restaurant_id = r.id
+            WHERE ds.sales_date >= ? AND ds.sales_date < ?
+            GROUP BY ds.restaurant_id, r.name
+            ORDER BY revenue DESC
+        """;
+        return getSalesReport(sql, from, to);
+    }
+
+    /**
+     * Sales totals per day for {@code from <= day < to}, read from the daily rollup.
+     */
+    public List<SalesReportRow> getSalesByDay(LocalDate from, LocalDate to) {
+        String sql = """
+            SELECT ds.sales_date AS label,
+                   SUM(ds.order_count) AS order_count, SUM(ds.item_count) AS item_count, SUM(ds.revenue) AS revenue,
+                   SUM(ds.delivered_count) AS delivered_count, SUM(ds.delivered_revenue) AS delivered_revenue
+            FROM daily_sales ds
+            WHERE ds.sales_date >= ? AND ds.sales_date < ?
+            GROUP BY ds.sales_date
+            ORDER BY ds.sales_date
+        """;
+        return getSalesReport(sql, from, to);
+    }
+
+    /**
+     * Lifetime earnings, read from the deliverer's running balance.
+     */
+    public BigDecimal calculateDelivererEarnings(int delivererId) {
+        String sql = "SELECT total_earnings FROM deliverer_balances WHERE deliverer_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, delivererId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getBigDecimal("total_earnings");
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    /**
+     * Earnings for deliveries completed in {@code from <= earned_at < to}, read from the ledger.
+     */
+    public BigDecimal calculateDelivererEarnings(int delivererId, LocalDateTime from, LocalDateTime to) {
+        String sql = """
+            SELECT COALESCE(SUM(amount), 0) AS total_earnings
+            FROM deliverer_earnings
+            WHERE deliverer_id = ? AND earned_at >= ? AND earned_at < ?
+        """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, delivererId);
+            stmt.setTimestamp(2, Timestamp.valueOf(from));
+            stmt.setTimestamp(3, Timestamp.valueOf(to));
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getBigDecimal("total_earnings");
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    public int getProductOrderCount(int productId) {
+        String sql = "SELECT COUNT(*) AS count FROM order_items WHERE product_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, productId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return 0;
+    }
+
+    public BigDecimal getProductRevenue(int productId) {
+        String sql = """
+            SELECT COALESCE(SUM(oi.unit_price * oi.quantity), 0) AS revenue
+            FROM order_items oi
+            JOIN orders o ON oi.order_id = o.id
+            WHERE oi.product_id = ? AND o.status = 'DELIVERED'
+        """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, productId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getBigDecimal("revenue");
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private List<SalesReportRow> getSalesReport(String sql, LocalDate from, LocalDate to) {
+        List<SalesReportRow> rows = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            stmt.setDate(2, java.sql.Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String label = rs.getString("label");
+                    rows.add(new SalesReportRow(
+                            label != null ? label : "Restaurant #" + rs.getInt("restaurant_id"),
+                            rs.getInt("order_count"),
+                            rs.getInt("item_count"),
+                            rs.getBigDecimal("revenue"),
+                            rs.getInt("delivered_count"),
+                            rs.getBigDecimal("delivered_revenue")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return rows;
+    }
+
+    /**
+     * Pending orders as dispatch queue entries, with the restaurant name and item count filled
+     * in by the same query; only {@code orderId} when it is not null.
+     */
+    private List<PendingOrder> loadPendingOrders(Connection conn, Integer orderId) throws SQLException {
+        String sql = """
+            SELECT o.id, o.restaurant_id, r.name AS restaurant_name, o.total, o.order_date, o.version,
+                   (SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = o.id) AS item_count
+            FROM orders o
+            LEFT JOIN restaurants r ON r.id = o.restaurant_id
+            WHERE o.status = ?
+        """ + (orderId != null ? " AND o.id = ?" : "");
+
+        List<PendingOrder> pending = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, CLAIMABLE_STATUS);
+            if (orderId != null) {
+                stmt.setInt(2, orderId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pending.add(new PendingOrder(
+                            rs.getInt("id"),
+                            rs.getInt("restaurant_id"),
+                            rs.getString("restaurant_name"),
+                            rs.getInt("item_count"),
+                            rs.getBigDecimal("total"),
+                            rs.getTimestamp("order_date").toLocalDateTime(),
+                            rs.getInt("version")
+                    ));
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Re-reads one order and puts it in, or takes it out of, the dispatch queue. A failure here
+     * only leaves the queue stale, which claiming tolerates.
+     */
+    /**
+     * Re-reads one dispatch queue entry on the caller's connection. Borrowing a second one would
+     * leave a pool full of losing claimers each waiting for another's connection.
+     */
+    private void refreshDispatch(Connection conn, int orderId) throws SQLException {
+        Optional<PendingOrder> pending = loadPendingOrders(conn, orderId).stream().findFirst();
+        if (pending.isPresent()) {
+            dispatchQueue.add(pending.get());
+        } else {
+            dispatchQueue.remove(orderId);
+        }
+    }
+
+    private boolean tryClaim(Connection conn, int orderId, int expectedVersion, int delivererId) throws SQLException {
+        String updateSql = """
+            UPDATE orders SET status = ?, deliverer_id = ?, version = version + 1
+            WHERE id = ? AND status = ? AND version = ?
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            stmt.setString(1, CLAIMED_STATUS);
+            stmt.setInt(2, delivererId);
+            stmt.setInt(3, orderId);
+            stmt.setString(4, CLAIMABLE_STATUS);
+            stmt.setInt(5, expectedVersion);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+
+        // the UPDATE above holds the row lock until commit, so this read cannot race
+        String selectSql = "SELECT restaurant_id, order_date, total FROM orders WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    applyTransitionEffects(conn, orderId, rs.getTimestamp("order_date").toLocalDateTime().toLocalDate(),
+                            rs.getInt("restaurant_id"), rs.getBigDecimal("total"),
+                            CLAIMABLE_STATUS, CLAIMED_STATUS, null, delivererId);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes the status of an order on the caller's transaction, locking the row first so the
+     * rollups see a consistent before/after status. Returns the status the order had before, or
+     * null when there is no such order.
+     */
+    private String applyStatusChange(Connection conn, int orderId, String status, int delivererId) throws SQLException {
+        String selectSql = "SELECT status, restaurant_id, order_date, total, deliverer_id FROM orders WHERE id = ? FOR UPDATE";
+        String oldStatus;
+        int restaurantId;
+        LocalDate orderDate;
+        BigDecimal orderTotal;
+        Integer oldDelivererId;
+
+        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                oldStatus = rs.getString("status");
+                restaurantId = rs.getInt("restaurant_id");
+                orderDate = rs.getTimestamp("order_date").toLocalDateTime().toLocalDate();
+                orderTotal = rs.getBigDecimal("total");
+                oldDelivererId = rs.getObject("deliverer_id", Integer.class);
+            }
+        }
+
+        String updateSql = "UPDATE orders SET status = ?, deliverer_id = ?, version = version + 1 WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            stmt.setString(1, status);
+            stmt.setInt(2, delivererId);
+            stmt.setInt(3, orderId);
+            if (stmt.executeUpdate() == 0) {
+                return null;
+            }
+        }
+
+        applyTransitionEffects(conn, orderId, orderDate, restaurantId, orderTotal, oldStatus, status,
+                oldDelivererId, delivererId);
+        return oldStatus;
+    }
+
+    /**
+     * Keeps the rollups and the earnings ledger in step with a status change. A delivered order
+     * that is reassigned to another deliverer moves its earning to the new deliverer.
+     */
+    private void applyTransitionEffects(Connection conn, int orderId, LocalDate orderDate, int restaurantId,
+                                        BigDecimal orderTotal, String oldStatus, String newStatus,
+                                        Integer oldDelivererId, int delivererId) throws SQLException {
+        boolean wasDelivered = SalesRollups.DELIVERED.equals(oldStatus);
+        boolean isDelivered = SalesRollups.DELIVERED.equals(newStatus);
+        if (wasDelivered != isDelivered) {
+            salesRollups.recordStatusChange(conn, orderDate, restaurantId, orderTotal, oldStatus, newStatus);
+            if (isDelivered) {
+                earningsLedger.recordDelivered(conn, orderId, delivererId, orderTotal);
+            } else {
+                earningsLedger.reverseDelivered(conn, orderId);
+            }
+        } else if (isDelivered && (oldDelivererId == null || oldDelivererId != delivererId)) {
+            earningsLedger.reverseDelivered(conn, orderId);
+            earningsLedger.recordDelivered(conn, orderId, delivererId, orderTotal);
+        }
+    }
+
+    private OrderTemp mapResultSetToOrderTemp(ResultSet rs) throws SQLException {
+        return new OrderTemp(
+                rs.getInt("id"),
+                rs.getInt("user_id"),
+                rs.getInt("restaurant_id"),
+                rs.getString("status"),
+                rs.getTimestamp("order_date").toLocalDateTime(),
+                rs.getBigDecimal("total"),
+                rs.getInt("version")
+        );
+    }
+
+    /**
+     * Orders with {@code from <= order_date < to}. The half-open range keeps the predicate
+     * sargable, so the {@code order_date} index is used instead of a full scan.
+     */
+    private List<Order> getOrdersBetween(LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT * FROM orders WHERE order_date >= ? AND order_date < ? ORDER BY order_date DESC";
+        List<OrderTemp> tempOrders = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tempOrders.add(mapResultSetToOrderTemp(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+
+        return mapTempOrdersToOrders(tempOrders);
+    }
+
+    private List<Order> mapTempOrdersToOrders(List<OrderTemp> tempOrders) {
+        return graphLoader.load(tempOrders);
+    }
+
+    private boolean insertOrderGroup(List<Order> group) {
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                snapshotPrices(conn, group);
+                insertOrderRows(conn, group);
+                insertOrderItemRows(conn, group);
+                salesRollups.recordCreated(conn, group);
+                conn.commit();
+                for (Order order : group) {
+                    publish(new OrderCreatedEvent(order.getId(), order.getUserId(), order.getRestaurantId(),
+                            order.getStatus(), order.getOrderItems().size(), order.getTotal(), order.getOrderDate()));
+                }
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                for (Order order : group) {
+                    order.setId(0);
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    /**
+     * Freezes item prices and the order total as they are at placement time, so later price
+     * changes do not rewrite order history. Prices are read from {@code products} on the insert
+     * transaction rather than taken from the (possibly stale) {@link Product} objects; an item
+     * whose product no longer exists fails the group.
+     */
+    private static void snapshotPrices(Connection conn, List<Order> orders) throws SQLException {
+        Set<Integer> productIds = new LinkedHashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                productIds.add(item.getProductId());
+            }
+        }
+
+        Map<Integer, BigDecimal> prices = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += MAX_IN_PARAMS) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_PARAMS, ids.size()));
+            String sql = "SELECT id, price FROM products WHERE id IN (" + valuesList(chunk.size(), "?") + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        prices.put(rs.getInt("id"), rs.getBigDecimal("price"));
+                    }
+                }
+            }
+        }
+
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                BigDecimal price = prices.get(item.getProductId());
+                if (price == null) {
+                    throw new SQLException("Product " + item.getProductId() + " has no price; it may have been deleted");
+                }
+                item.setUnitPrice(price);
+            }
+            order.setTotal(order.calculateItemsTotal());
+        }
+    }
+
+    private void insertOrderRows(Connection conn, List<Order> orders) throws SQLException {
+        for (int from = 0; from < orders.size(); from += ROWS_PER_INSERT) {
+            List<Order> chunk = orders.subList(from, Math.min(from + ROWS_PER_INSERT, orders.size()));
+            String sql = "INSERT INTO orders (user_id, restaurant_id, status, order_date, total) VALUES "
+                    + valuesList(chunk.size(), "(?, ?, ?, ?, ?)");
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int index = 1;
+                for (Order order : chunk) {
+                    stmt.setInt(index++, order.getUserId());
+                    stmt.setInt(index++, order.getRestaurantId());
+                    stmt.setString(index++, order.getStatus());
+                    stmt.setTimestamp(index++, Timestamp.valueOf(order.getOrderDate()));
+                    stmt.setBigDecimal(index++, order.getTotal());
+                }
+                stmt.executeUpdate();
+
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (Order order : chunk) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for inserted order");
+                        }
+                        order.setId(keys.getInt(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertOrderItemRows(Connection conn, List<Order> orders) throws SQLException {
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                item.setOrderId(order.getId());
+                items.add(item);
+            }
+        }
+
+        for (int from = 0; from < items.size(); from += ROWS_PER_INSERT) {
+            List<OrderItem> chunk = items.subList(from, Math.min(from + ROWS_PER_INSERT, items.size()));
+            String sql = "INSERT INTO order_items (order_id, product_id, quantity, unit_price) VALUES "
+                    + valuesList(chunk.size(), "(?, ?, ?, ?)");
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int index = 1;
+                for (OrderItem item : chunk) {
+                    stmt.setInt(index++, item.getOrderId());
+                    stmt.setInt(index++, item.getProductId());
+                    stmt.setInt(index++, item.getQuantity());
+                    stmt.setBigDecimal(index++, item.getUnitPrice());
+                }
+                stmt.executeUpdate();
+
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (OrderItem item : chunk) {
+                        if (keys.next()) {
+                            item.setId(keys.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String valuesList(int rows, String rowPlaceholders) {
+        return String.join(", ", Collections.nCopies(rows, rowPlaceholders));
+    }
+
+    /**
+     * Publishes the change on the event bus and records it for Flight Recorder.
+     */
+    private void publish(OrderStatusChangedEvent event) {
+        eventBus.publish(event);
+        OrderTransitionEvent.emit(event.orderId(), event.oldStatus(), event.newStatus(), event.delivererId());
+    }
+
+    private void publish(OrderCreatedEvent event) {
+        eventBus.publish(event);
+        OrderTransitionEvent.emit(event.orderId(), null, event.status(), 0);
+    }
+
+    private static void closeQuietly(ResultSet rs, Statement stmt, Connection conn) {
+        try (conn; stmt; rs) {
+            // closed in reverse order by try-with-resources
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+    }
+
+    private class OrderBatchIterator implements Iterator<Order> {
+        private final Connection conn;
+        private final ResultSet rs;
+        private final int batchSize;
+        private Iterator<Order> current = new ArrayList<Order>().iterator();
+        private boolean exhausted;
+
+        OrderBatchIterator(Connection conn, ResultSet rs, int batchSize) {
+            this.conn = conn;
+            this.rs = rs;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !exhausted) {
+                current = nextBatch().iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public Order next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<Order> nextBatch() {
+            List<OrderTemp> batch = new ArrayList<>(batchSize);
+            try {
+                while (batch.size() < batchSize && rs.next()) {
+                    batch.add(mapResultSetToOrderTemp(rs));
+                }
+                if (batch.size() < batchSize) {
+                    exhausted = true;
+                }
+                return graphLoader.load(conn, batch);
+            } catch (SQLException e) {
+                RepositoryMetrics.recordError(e);
+                exhausted = true;
+                throw new RepositoryException("Failed to stream orders", e);
+            }
+        }
+    }
+
+    static class OrderTemp {
+        int id, userId, restaurantId;
+        String status;
+        LocalDateTime date;
+        BigDecimal total;
+        int version;
+
+        public OrderTemp(int id, int userId, int restaurantId, String status, LocalDateTime date, BigDecimal total,
+                         int version) {
+            this.id = id;
+            this.userId = userId;
+            this.restaurantId = restaurantId;
+            this.status = status;
+            this.date = date;
+            this.total = total;
+            this.version = version;
+        }
+    }
+}
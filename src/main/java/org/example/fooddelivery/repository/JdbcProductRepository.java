@@ -0,0 +1,289 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.event.ChangeKind;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.ProductChangedEvent;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.ProductSales;
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.util.DatabaseConnection;
+
+import java.sql.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcProductRepository implements ProductRepository {
+    private final DatabaseConnection dbConnection;
+    private final EventBus eventBus;
+
+    public JdbcProductRepository() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.eventBus = EventBus.getInstance();
+    }
+
+    public List<Product> getAllProducts() {
+        List<Product> products = new ArrayList<>();
+        String sql = """
+        SELECT p.*, r.id as restaurant_id, r.name as restaurant_name
+        FROM products p
+        LEFT JOIN restaurants r ON p.restaurant_id = r.id
+        """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                products.add(mapResultSetToProduct(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return products;
+    }
+
+    public List<Product> getProductsByRestaurantId(int restaurantId) {
+        List<Product> cached = CatalogCache.PRODUCTS_BY_RESTAURANT.get(restaurantId, this::loadProductsByRestaurantId);
+        List<Product> products = new ArrayList<>();
+        if (cached != null) {
+            for (Product product : cached) {
+                products.add(CatalogCache.copyOf(product));
+            }
+        }
+        return products;
+    }
+
+    public Product getProductById(int id) {
+        Product product = CatalogCache.PRODUCTS_BY_ID.get(id, this::loadProductById);
+        return product != null ? CatalogCache.copyOf(product) : null;
+    }
+
+    private List<Product> loadProductsByRestaurantId(int restaurantId) {
+        List<Product> products = new ArrayList<>();
+        String sql = """
+        SELECT p.*, r.name as restaurant_name
+        FROM products p
+        LEFT JOIN restaurants r ON p.restaurant_id = r.id
+        WHERE p.restaurant_id = ?
+        """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, restaurantId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                products.add(mapResultSetToProduct(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return null;
+        }
+        return products;
+    }
+
+    private Product loadProductById(int id) {
+        String sql = """
+        SELECT p.*, r.id as restaurant_id, r.name as restaurant_name
+        FROM products p
+        LEFT JOIN restaurants r ON p.restaurant_id = r.id
+        WHERE p.id = ?
+    """;
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToProduct(rs);
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return null;
+    }
+
+
+    public boolean createProduct(Product product) {
+        String sql = "INSERT INTO products (name, description, price, restaurant_id) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, product.getName());
+            stmt.setString(2, product.getDescription());
+            stmt.setBigDecimal(3, product.getPrice());
+            stmt.setInt(4, product.getRestaurantId());
+
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    product.setId(generatedKeys.getInt(1));
+                    CatalogCache.PRODUCTS_BY_RESTAURANT.invalidate(product.getRestaurantId());
+                    eventBus.publish(new ProductChangedEvent(product.getId(), product.getRestaurantId(), ChangeKind.CREATED));
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    public boolean updateProduct(Product product) {
+        String sql = "UPDATE products SET name = ?, description = ?, price = ?, restaurant_id = ? WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, product.getName());
+            stmt.setString(2, product.getDescription());
+            stmt.setBigDecimal(3, product.getPrice());
+            stmt.setInt(4, product.getRestaurant().getId());
+            stmt.setInt(5, product.getId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            invalidateProduct(product.getId());
+            if (updated) {
+                eventBus.publish(new ProductChangedEvent(product.getId(), product.getRestaurant().getId(), ChangeKind.UPDATED));
+            }
+            return updated;
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    public boolean deleteProduct(int id) {
+        String sql = "DELETE FROM products WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            boolean deleted = stmt.executeUpdate() > 0;
+            invalidateProduct(id);
+            if (deleted) {
+                eventBus.publish(new ProductChangedEvent(id, 0, ChangeKind.DELETED));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+
+    public List<Product> getPopularProducts() {
+        List<Product> products = new ArrayList<>();
+        String sql = """
+        SELECT p.*, r.name AS restaurant_name
+        FROM products p
+        LEFT JOIN restaurants r ON p.restaurant_id = r.id
+        LEFT JOIN order_items oi ON p.id = oi.product_id
+        GROUP BY p.id
+        ORDER BY COUNT(oi.product_id) DESC
+        LIMIT 10
+        """;
+
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                products.add(mapResultSetToProduct(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return products;
+    }
+
+    /**
+     * Top {@code limit} products by number of order lines, with delivered revenue, in one query.
+     * {@code from}/{@code to} bound the order date ({@code from <= order_date < to}) and
+     * {@code restaurantId} restricts to one restaurant; pass null to leave a filter out. Like
+     * {@link #getPopularProducts}, products without orders in the window still fill the list, with
+     * a count of zero; the date filters sit in the join so they do not drop them.
+     */
+    public List<ProductSales> getPopularProductSales(int limit, LocalDateTime from, LocalDateTime to, Integer restaurantId) {
+        List<ProductSales> results = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("""
+        SELECT p.*, r.name AS restaurant_name,
+               COUNT(o.id) AS order_count,
+               COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN oi.unit_price * oi.quantity ELSE 0 END), 0) AS revenue
+        FROM products p
+        LEFT JOIN restaurants r ON p.restaurant_id = r.id
+        LEFT JOIN order_items oi ON oi.product_id = p.id
+        LEFT JOIN orders o ON oi.order_id = o.id
+        """);
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        if (restaurantId != null) {
+            sql.append(" WHERE p.restaurant_id = ?");
+            params.add(restaurantId);
+        }
+        sql.append("""
+         GROUP BY p.id, p.name, p.description, p.price, p.restaurant_id, r.name
+        ORDER BY order_count DESC, p.id
+        LIMIT ?
+        """);
+        params.add(limit);
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new ProductSales(
+                            mapResultSetToProduct(rs),
+                            rs.getInt("order_count"),
+                            rs.getBigDecimal("revenue")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return results;
+    }
+
+    private static void invalidateProduct(int id) {
+        CatalogCache.PRODUCTS_BY_ID.invalidate(id);
+        // the product may have moved between restaurants, so drop every menu list
+        CatalogCache.PRODUCTS_BY_RESTAURANT.invalidateAll();
+    }
+
+    static Product mapResultSetToProduct(ResultSet rs) throws SQLException {
+        int productId = rs.getInt("id");
+        String name = rs.getString("name");
+        String description = rs.getString("description");
+        BigDecimal price = rs.getBigDecimal("price");
+
+        int restaurantId = rs.getInt("restaurant_id");
+        String restaurantName = rs.getString("restaurant_name");
+        Restaurant restaurant = new Restaurant(restaurantId, restaurantName, null, null);
+
+        return new Product(productId, name, price, description, restaurant);
+    }
+
+
+}
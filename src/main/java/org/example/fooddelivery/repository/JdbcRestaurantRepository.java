@@ -0,0 +1,157 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.event.ChangeKind;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.event.RestaurantChangedEvent;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.Restaurant;
+import org.example.fooddelivery.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcRestaurantRepository implements RestaurantRepository {
+    private final DatabaseConnection dbConnection;
+
+    public JdbcRestaurantRepository() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public List<Restaurant> getAllRestaurants() {
+        List<Restaurant> cached = CatalogCache.ALL_RESTAURANTS.get(CatalogCache.ALL_KEY, key -> loadAllRestaurants());
+        List<Restaurant> restaurants = new ArrayList<>();
+        if (cached != null) {
+            for (Restaurant restaurant : cached) {
+                restaurants.add(CatalogCache.copyOf(restaurant));
+            }
+        }
+        return restaurants;
+    }
+
+    public Restaurant getRestaurantById(int id) {
+        Restaurant restaurant = CatalogCache.RESTAURANTS_BY_ID.get(id, this::loadRestaurantById);
+        return restaurant != null ? CatalogCache.copyOf(restaurant) : null;
+    }
+
+    private List<Restaurant> loadAllRestaurants() {
+        List<Restaurant> restaurants = new ArrayList<>();
+        String sql = "SELECT * FROM restaurants ORDER BY name";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                restaurants.add(mapResultSetToRestaurant(rs));
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return null;
+        }
+        return restaurants;
+    }
+
+    private Restaurant loadRestaurantById(int id) {
+        String sql = "SELECT * FROM restaurants WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToRestaurant(rs);
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return null;
+    }
+
+    public boolean createRestaurant(Restaurant restaurant) {
+        String sql = "INSERT INTO restaurants (name, address, phone) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, restaurant.getName());
+            stmt.setString(2, restaurant.getAddress());
+            stmt.setString(3, restaurant.getPhone());
+
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    restaurant.setId(generatedKeys.getInt(1));
+                    CatalogCache.ALL_RESTAURANTS.invalidateAll();
+                    EventBus.getInstance().publish(new RestaurantChangedEvent(restaurant.getId(), ChangeKind.CREATED));
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    public boolean updateRestaurant(Restaurant restaurant) {
+        String sql = "UPDATE restaurants SET name = ?, address = ?, phone = ? WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, restaurant.getName());
+            stmt.setString(2, restaurant.getAddress());
+            stmt.setString(3, restaurant.getPhone());
+            stmt.setInt(4, restaurant.getId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            invalidateRestaurant(restaurant.getId());
+            if (updated) {
+                EventBus.getInstance().publish(new RestaurantChangedEvent(restaurant.getId(), ChangeKind.UPDATED));
+            }
+            return updated;
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    public boolean deleteRestaurant(int id) {
+        String sql = "DELETE FROM restaurants WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            boolean deleted = stmt.executeUpdate() > 0;
+            invalidateRestaurant(id);
+            if (deleted) {
+                EventBus.getInstance().publish(new RestaurantChangedEvent(id, ChangeKind.DELETED));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    private static void invalidateRestaurant(int id) {
+        CatalogCache.RESTAURANTS_BY_ID.invalidate(id);
+        CatalogCache.ALL_RESTAURANTS.invalidateAll();
+        // products embed the restaurant name
+        CatalogCache.PRODUCTS_BY_ID.invalidateAll();
+        CatalogCache.PRODUCTS_BY_RESTAURANT.invalidateAll();
+    }
+
+    static Restaurant mapResultSetToRestaurant(ResultSet rs) throws SQLException {
+        return new Restaurant(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("address"),
+                rs.getString("phone")
+        );
+    }
+}
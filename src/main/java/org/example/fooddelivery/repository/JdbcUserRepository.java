@@ -0,0 +1,106 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.User;
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.example.fooddelivery.util.PasswordUtils;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcUserRepository implements UserRepository {
+    private final DatabaseConnection dbConnection;
+
+    public JdbcUserRepository() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public User getUserById(int userId) {
+        String sql = "SELECT * FROM users WHERE id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapResultSetToUser(rs);
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return null;
+    }
+
+
+    public User authenticate(String username, String password) {
+        String sql = "SELECT * FROM users WHERE username = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            ResultSet rs = stmt.executeQuery();
+
+            String storedPassword = rs.next() ? rs.getString("password") : null;
+            // an unknown username is still checked, against a dummy hash, so it takes as long as a wrong password
+            if (PasswordUtils.verify(password, storedPassword)) {
+                User user = mapResultSetToUser(rs);
+                if (PasswordUtils.needsRehash(storedPassword)) {
+                    updatePassword(conn, user, PasswordUtils.hash(password));
+                }
+                return user;
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return null;
+    }
+
+    public boolean registerUser(User user) {
+        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, user.getUsername());
+            stmt.setString(2, PasswordUtils.hash(user.getPassword()));
+            stmt.setString(3, user.getRole().toString());
+
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    user.setId(generatedKeys.getInt(1));
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+        }
+        return false;
+    }
+
+    /**
+     * Replaces a plain or outdated hash with one at the current cost, once the password is known.
+     */
+    private void updatePassword(Connection conn, User user, String hash) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password = ? WHERE id = ?")) {
+            stmt.setString(1, hash);
+            stmt.setInt(2, user.getId());
+            stmt.executeUpdate();
+        }
+        user.setPassword(hash);
+    }
+
+    static User mapResultSetToUser(ResultSet rs) throws SQLException {
+        return new User(
+                rs.getInt("id"),
+                rs.getString("username"),
+                rs.getString("password"),
+                User.UserRole.valueOf(rs.getString("role"))
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.*;
+import org.example.fooddelivery.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Builds fully populated {@link Order} graphs for a batch of order rows with a fixed number of
+ * set-based queries (users, restaurants, items joined with products) instead of per-order lookups.
+ */
+class OrderGraphLoader {
+    private static final int MAX_IN_PARAMS = 500;
+
+    private final DatabaseConnection dbConnection;
+
+    OrderGraphLoader(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    List<Order> load(List<JdbcOrderRepository.OrderTemp> tempOrders) {
+        if (tempOrders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection conn = dbConnection.getConnection()) {
+            return load(conn, tempOrders);
+        } catch (SQLException e) {
+            RepositoryMetrics.recordError(e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Same as {@link #load(List)}, on a connection the caller already holds, such as the one
+     * behind an open streaming result set.
+     */
+    List<Order> load(Connection conn, List<JdbcOrderRepository.OrderTemp> tempOrders) throws SQLException {
+        if (tempOrders.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Integer> userIds = new LinkedHashSet<>();
+        Set<Integer> restaurantIds = new LinkedHashSet<>();
+        Set<Integer> orderIds = new LinkedHashSet<>();
+        for (JdbcOrderRepository.OrderTemp temp : tempOrders) {
+            userIds.add(temp.userId);
+            restaurantIds.add(temp.restaurantId);
+            orderIds.add(temp.id);
+        }
+
+        Map<Integer, User> users = loadUsers(conn, userIds);
+        Map<Integer, Restaurant> restaurants = loadRestaurants(conn, restaurantIds);
+        Map<Integer, List<OrderItem>> itemsByOrder = loadItems(conn, orderIds);
+
+        List<Order> orders = new ArrayList<>(tempOrders.size());
+        for (JdbcOrderRepository.OrderTemp temp : tempOrders) {
+            List<OrderItem> items = itemsByOrder.getOrDefault(temp.id, new ArrayList<>());
+            Order order = new Order(temp.id, users.get(temp.userId), restaurants.get(temp.restaurantId),
+                    items, temp.date, temp.status);
+            order.setTotal(temp.total);
+            order.setVersion(temp.version);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private Map<Integer, User> loadUsers(Connection conn, Set<Integer> ids) throws SQLException {
+        Map<Integer, User> users = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            String sql = "SELECT * FROM users WHERE id IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindIds(stmt, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        User user = JdbcUserRepository.mapResultSetToUser(rs);
+                        users.put(user.getId(), user);
+                    }
+                }
+            }
+        }
+        return users;
+    }
+
+    private Map<Integer, Restaurant> loadRestaurants(Connection conn, Set<Integer> ids) throws SQLException {
+        Map<Integer, Restaurant> restaurants = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            String sql = "SELECT * FROM restaurants WHERE id IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindIds(stmt, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Restaurant restaurant = JdbcRestaurantRepository.mapResultSetToRestaurant(rs);
+                        restaurants.put(restaurant.getId(), restaurant);
+                    }
+                }
+            }
+        }
+        return restaurants;
+    }
+
+    private Map<Integer, List<OrderItem>> loadItems(Connection conn, Set<Integer> orderIds) throws SQLException {
+        Map<Integer, List<OrderItem>> itemsByOrder = new HashMap<>();
+        Map<Integer, Product> products = new HashMap<>();
+
+        for (List<Integer> chunk : chunks(orderIds)) {
+            String sql = """
+                SELECT oi.id AS item_id, oi.order_id, oi.product_id, oi.quantity, oi.unit_price,
+                       p.id, p.name, p.description, p.price, p.restaurant_id, r.name AS restaurant_name
+                FROM order_items oi
+                LEFT JOIN products p ON oi.product_id = p.id
+                LEFT JOIN restaurants r ON p.restaurant_id = r.id
+                WHERE oi.order_id IN (%s)
+                ORDER BY oi.order_id, oi.id
+            """.formatted(placeholders(chunk.size()));
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindIds(stmt, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int orderId = rs.getInt("order_id");
+                        int productId = rs.getInt("product_id");
+                        rs.getInt("id");
+                        if (rs.wasNull()) {
+                            System.err.printf("⚠ Product with ID %d not found (Order ID: %d). Skipping item.%n", productId, orderId);
+                            continue;
+                        }
+
+                        Product product = products.get(productId);
+                        if (product == null) {
+                            product = JdbcProductRepository.mapResultSetToProduct(rs);
+                            products.put(productId, product);
+                        }
+
+                        itemsByOrder.computeIfAbsent(orderId, id -> new ArrayList<>())
+                                .add(new OrderItem(rs.getInt("item_id"), orderId, product,
+                                        rs.getInt("quantity"), rs.getBigDecimal("unit_price")));
+                    }
+                }
+            }
+        }
+        return itemsByOrder;
+    }
+
+    private static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_IN_PARAMS) {
+            chunks.add(all.subList(from, Math.min(from + MAX_IN_PARAMS, all.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(i + 1, ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.fooddelivery.repository;
+
+/**
+ * Unchecked wrapper for a database error that cannot be reported through a repository method's
+ * return value, such as one raised while a returned stream is being consumed.
+ */
+public class RepositoryException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RepositoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
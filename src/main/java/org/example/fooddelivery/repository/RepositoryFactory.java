@@ -0,0 +1,91 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+
+/**
+ * Hands out the repositories for the storage backend named by {@code storage.backend}:
+ * {@code jdbc} for the configured database or {@code memory} for an empty in-process store.
+ * Every caller gets the same instances, so with the memory backend they all see the same data.
+ * Unless {@code metrics.repositories.enabled} is false, the instances are wrapped by
+ * {@link RepositoryMetrics}.
+ */
+public final class RepositoryFactory {
+    public static final String JDBC = "jdbc";
+    public static final String MEMORY = "memory";
+
+    private static RepositoryFactory instance;
+
+    private final String backend;
+    private final UserRepository userRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+
+    private RepositoryFactory(String backend, boolean instrumented) {
+        this.backend = backend;
+        UserRepository users;
+        RestaurantRepository restaurants;
+        ProductRepository products;
+        OrderRepository orders;
+        switch (backend) {
+            case JDBC -> {
+                users = new JdbcUserRepository();
+                restaurants = new JdbcRestaurantRepository();
+                products = new JdbcProductRepository();
+                orders = new JdbcOrderRepository();
+            }
+            case MEMORY -> {
+                InMemoryStore store = new InMemoryStore();
+                users = new InMemoryUserRepository(store);
+                restaurants = new InMemoryRestaurantRepository(store);
+                products = new InMemoryProductRepository(store);
+                orders = new InMemoryOrderRepository(store);
+            }
+            default -> throw new IllegalStateException("Unknown storage.backend: " + backend);
+        }
+        if (instrumented) {
+            users = RepositoryMetrics.instrument(UserRepository.class, users);
+            restaurants = RepositoryMetrics.instrument(RestaurantRepository.class, restaurants);
+            products = RepositoryMetrics.instrument(ProductRepository.class, products);
+            orders = RepositoryMetrics.instrument(OrderRepository.class, orders);
+        }
+        this.userRepository = users;
+        this.restaurantRepository = restaurants;
+        this.productRepository = products;
+        this.orderRepository = orders;
+    }
+
+    public static synchronized RepositoryFactory getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new RepositoryFactory(config.getStorageBackend().trim().toLowerCase(),
+                    config.isRepositoryMetricsEnabled());
+        }
+        return instance;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public boolean usesDatabase() {
+        return JDBC.equals(backend);
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public RestaurantRepository getRestaurantRepository() {
+        return restaurantRepository;
+    }
+
+    public ProductRepository getProductRepository() {
+        return productRepository;
+    }
+
+    public OrderRepository getOrderRepository() {
+        return orderRepository;
+    }
+}
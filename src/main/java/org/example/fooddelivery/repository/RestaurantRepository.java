@@ -1,116 +1,21 @@
 package org.example.fooddelivery.repository;
 
 import org.example.fooddelivery.model.Restaurant;
-import org.example.fooddelivery.util.DatabaseConnection;
 
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
-public class RestaurantRepository {
-    private static DatabaseConnection dbConnection;
+/**
+ * Restaurants, ordered by name when listed. Returned objects are copies the caller may modify.
+ * Obtain an instance from {@link RepositoryFactory}.
+ */
+public interface RestaurantRepository {
+    List<Restaurant> getAllRestaurants();
 
-    public RestaurantRepository() {
-        dbConnection = DatabaseConnection.getInstance();
-    }
+    Restaurant getRestaurantById(int id);
 
-    public List<Restaurant> getAllRestaurants() {
-        List<Restaurant> restaurants = new ArrayList<>();
-        String sql = "SELECT * FROM restaurants ORDER BY name";
+    boolean createRestaurant(Restaurant restaurant);
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    boolean updateRestaurant(Restaurant restaurant);
 
-            while (rs.next()) {
-                restaurants.add(mapResultSetToRestaurant(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return restaurants;
-    }
-
-    public static Restaurant getRestaurantById(int id) {
-        String sql = "SELECT * FROM restaurants WHERE id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToRestaurant(rs);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    public boolean createRestaurant(Restaurant restaurant) {
-        String sql = "INSERT INTO restaurants (name, address, phone) VALUES (?, ?, ?)";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, restaurant.getName());
-            stmt.setString(2, restaurant.getAddress());
-            stmt.setString(3, restaurant.getPhone());
-
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    restaurant.setId(generatedKeys.getInt(1));
-                    return true;
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-    public boolean updateRestaurant(Restaurant restaurant) {
-        String sql = "UPDATE restaurants SET name = ?, address = ?, phone = ? WHERE id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, restaurant.getName());
-            stmt.setString(2, restaurant.getAddress());
-            stmt.setString(3, restaurant.getPhone());
-            stmt.setInt(4, restaurant.getId());
-
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-    public boolean deleteRestaurant(int id) {
-        String sql = "DELETE FROM restaurants WHERE id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-    private static Restaurant mapResultSetToRestaurant(ResultSet rs) throws SQLException {
-        return new Restaurant(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getString("address"),
-                rs.getString("phone")
-        );
-    }
+    boolean deleteRestaurant(int id);
 }
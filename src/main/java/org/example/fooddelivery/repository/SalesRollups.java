@@ -0,0 +1,96 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Order;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the {@code daily_sales} rollup in step with order writes. Every method runs on the
+ * caller's connection so the rollup commits or rolls back together with the order change.
+ */
+class SalesRollups {
+    static final String DELIVERED = "DELIVERED";
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO daily_sales (sales_date, restaurant_id, order_count, item_count, revenue, delivered_count, delivered_revenue)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            order_count = order_count + VALUES(order_count),
+            item_count = item_count + VALUES(item_count),
+            revenue = revenue + VALUES(revenue),
+            delivered_count = delivered_count + VALUES(delivered_count),
+            delivered_revenue = delivered_revenue + VALUES(delivered_revenue)
+    """;
+
+    void recordCreated(Connection conn, List<Order> orders) throws SQLException {
+        Map<Key, Delta> deltas = new LinkedHashMap<>();
+        for (Order order : orders) {
+            BigDecimal total = order.getTotal();
+            boolean delivered = DELIVERED.equals(order.getStatus());
+            Key key = new Key(order.getOrderDate().toLocalDate(), order.getRestaurantId());
+            deltas.computeIfAbsent(key, k -> new Delta())
+                    .add(1, order.getOrderItems().size(), total, delivered ? 1 : 0, delivered ? total : BigDecimal.ZERO);
+        }
+        apply(conn, deltas);
+    }
+
+    void recordStatusChange(Connection conn, LocalDate orderDate, int restaurantId, BigDecimal orderTotal,
+                            String oldStatus, String newStatus) throws SQLException {
+        boolean wasDelivered = DELIVERED.equals(oldStatus);
+        boolean isDelivered = DELIVERED.equals(newStatus);
+        if (wasDelivered == isDelivered) {
+            return;
+        }
+
+        int sign = isDelivered ? 1 : -1;
+        Delta delta = new Delta();
+        delta.add(0, 0, BigDecimal.ZERO, sign, orderTotal.multiply(BigDecimal.valueOf(sign)));
+        apply(conn, Map.of(new Key(orderDate, restaurantId), delta));
+    }
+
+    private void apply(Connection conn, Map<Key, Delta> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<Key, Delta> entry : deltas.entrySet()) {
+                Key key = entry.getKey();
+                Delta delta = entry.getValue();
+                stmt.setDate(1, Date.valueOf(key.date()));
+                stmt.setInt(2, key.restaurantId());
+                stmt.setInt(3, delta.orderCount);
+                stmt.setInt(4, delta.itemCount);
+                stmt.setBigDecimal(5, delta.revenue);
+                stmt.setInt(6, delta.deliveredCount);
+                stmt.setBigDecimal(7, delta.deliveredRevenue);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private record Key(LocalDate date, int restaurantId) {
+    }
+
+    private static class Delta {
+        int orderCount, itemCount, deliveredCount;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal deliveredRevenue = BigDecimal.ZERO;
+
+        void add(int orders, int items, BigDecimal amount, int delivered, BigDecimal deliveredAmount) {
+            orderCount += orders;
+            itemCount += items;
+            revenue = revenue.add(amount);
+            deliveredCount += delivered;
+            deliveredRevenue = deliveredRevenue.add(deliveredAmount);
+        }
+    }
+}
@@ -1,90 +1,21 @@
 package org.example.fooddelivery.repository;
 
 import org.example.fooddelivery.model.User;
-import org.example.fooddelivery.util.DatabaseConnection;
 
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
-public class UserRepository {
-    private final DatabaseConnection dbConnection;
-
-    public UserRepository() {
-        this.dbConnection = DatabaseConnection.getInstance();
-    }
-
-    public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToUser(rs);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-
-    public User authenticate(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String storedPassword = rs.getString("password");
-                if (password.equals(storedPassword)) {
-                    return mapResultSetToUser(rs);
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    public boolean registerUser(User user) {
-        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPassword());  // Store plain password (without hashing)
-            stmt.setString(3, user.getRole().toString());
-
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    user.setId(generatedKeys.getInt(1));
-                    return true;
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        return new User(
-                rs.getInt("id"),
-                rs.getString("username"),
-                rs.getString("password"),
-                User.UserRole.valueOf(rs.getString("role"))
-        );
-    }
+/**
+ * User accounts. Obtain an instance from {@link RepositoryFactory}.
+ */
+public interface UserRepository {
+    User getUserById(int userId);
+
+    /**
+     * The user with these credentials, or null when the username is unknown or the password is wrong.
+     * A password stored in plain text or at an outdated hashing cost is re-hashed on success.
+     */
+    User authenticate(String username, String password);
+
+    /**
+     * Stores a new user and sets its id. Returns false when the username is taken.
+     */
+    boolean registerUser(User user);
 }
@@ -0,0 +1,183 @@
+package org.example.fooddelivery.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One API call: path parameters from the matched route, query parameters and the JSON body.
+ * The accessors throw {@link ApiException} with status 400 for missing or malformed values.
+ */
+class ApiRequest {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpExchange exchange;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private Map<String, Object> body;
+
+    ApiRequest(HttpExchange exchange, Map<String, String> pathParams) {
+        this.exchange = exchange;
+        this.pathParams = pathParams;
+        this.queryParams = parseQuery(exchange.getRequestURI().getRawQuery());
+    }
+
+    String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    int pathInt(String name) {
+        return parseInt(name, pathParams.get(name));
+    }
+
+    String query(String name) {
+        return queryParams.get(name);
+    }
+
+    int queryInt(String name, int defaultValue) {
+        String value = queryParams.get(name);
+        return value == null || value.isBlank() ? defaultValue : parseInt(name, value);
+    }
+
+    /**
+     * Like {@link #queryInt(String, int)}, but rejects values outside {@code min..max}. The
+     * default, which comes from configuration, is clamped instead.
+     */
+    int queryInt(String name, int defaultValue, int min, int max) {
+        String value = queryParams.get(name);
+        if (value == null || value.isBlank()) {
+            return Math.max(min, Math.min(defaultValue, max));
+        }
+        int parsed = parseInt(name, value);
+        if (parsed < min || parsed > max) {
+            throw new ApiException(400, name + " must be between " + min + " and " + max);
+        }
+        return parsed;
+    }
+
+    Integer queryInteger(String name) {
+        String value = queryParams.get(name);
+        return value == null || value.isBlank() ? null : parseInt(name, value);
+    }
+
+    LocalDate queryDate(String name, LocalDate defaultValue) {
+        String value = queryParams.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be a date like 2024-01-31");
+        }
+    }
+
+    Map<String, Object> body() {
+        if (body == null) {
+            body = readBody();
+        }
+        return body;
+    }
+
+    String bodyString(String field) {
+        Object value = body().get(field);
+        if (!(value instanceof String s)) {
+            throw new ApiException(400, field + " is required");
+        }
+        return s;
+    }
+
+    int bodyInt(String field) {
+        return toInt(field, body().get(field));
+    }
+
+    int bodyInt(String field, int defaultValue) {
+        Object value = body().get(field);
+        return value == null ? defaultValue : toInt(field, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> bodyObjects(String field) {
+        Object value = body().get(field);
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(item -> item instanceof Map)) {
+            throw new ApiException(400, field + " must be a list of objects");
+        }
+        return (List<Map<String, Object>>) value;
+    }
+
+    static int toInt(String field, Object value) {
+        if (!(value instanceof BigDecimal number)) {
+            throw new ApiException(400, field + " must be a number");
+        }
+        try {
+            return number.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new ApiException(400, field + " must be a whole number");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody() {
+        byte[] bytes;
+        try (InputStream input = exchange.getRequestBody()) {
+            bytes = input.readNBytes(MAX_BODY_BYTES + 1);
+        } catch (IOException e) {
+            throw new ApiException(400, "Could not read request body");
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request body too large");
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            Object parsed = Json.parse(text);
+            if (!(parsed instanceof Map)) {
+                throw new ApiException(400, "Request body must be a JSON object");
+            }
+            return (Map<String, Object>) parsed;
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Invalid JSON: " + e.getMessage());
+        }
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(decode(key), decode(value));
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Malformed query string: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package org.example.fooddelivery.server;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.dispatch.DispatchQueue;
+import org.example.fooddelivery.event.EventBus;
+import org.example.fooddelivery.metrics.MetricsRegistry;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.model.*;
+import org.example.fooddelivery.repository.*;
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.example.fooddelivery.util.SessionStore;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The operations of the console application as JSON endpoints. Callers identify themselves with
+ * an {@code Authorization: Bearer <token>} header holding the session token returned by
+ * {@code POST /api/login}; the token is checked against the {@link SessionStore} only.
+ */
+class FoodDeliveryApi {
+    private static final String AUTH_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int TOP_QUERY_SHAPES = 20;
+
+    private final UserRepository userRepository = RepositoryFactory.getInstance().getUserRepository();
+    private final RestaurantRepository restaurantRepository = RepositoryFactory.getInstance().getRestaurantRepository();
+    private final ProductRepository productRepository = RepositoryFactory.getInstance().getProductRepository();
+    private final OrderRepository orderRepository = RepositoryFactory.getInstance().getOrderRepository();
+    private final AsyncRestaurantRepository asyncRestaurantRepository = new AsyncRestaurantRepository(restaurantRepository);
+    private final AsyncProductRepository asyncProductRepository = new AsyncProductRepository(productRepository);
+    private final AsyncOrderRepository asyncOrderRepository = new AsyncOrderRepository(orderRepository);
+    private final SessionStore sessions = SessionStore.getInstance();
+    private final AppConfig config = AppConfig.getInstance();
+
+    void registerRoutes(HttpApiServer server) {
+        server.route("POST", "/api/login", this::login);
+        server.route("POST", "/api/logout", this::logout);
+        server.route("GET", "/api/restaurants", request -> restaurantViews(restaurantRepository.getAllRestaurants()));
+        server.route("GET", "/api/restaurants/{id}", this::getRestaurant);
+        server.route("GET", "/api/restaurants/{id}/products", this::getMenu);
+        server.route("POST", "/api/orders", this::placeOrder);
+        server.route("GET", "/api/orders", this::listOrders);
+        server.route("GET", "/api/orders/mine", this::myOrders);
+        server.route("POST", "/api/orders/{id}/claim", this::claimOrder);
+        server.route("GET", "/api/deliveries/available", this::availableOrders);
+        server.route("POST", "/api/deliveries/claim-next", this::claimNextOrders);
+        server.route("GET", "/api/deliveries/mine", this::myDeliveries);
+        server.route("GET", "/api/deliveries/earnings", this::earnings);
+        server.route("GET", "/api/reports/sales", this::salesReport);
+        server.route("GET", "/api/reports/popular-products", this::popularProducts);
+        server.route("GET", "/api/metrics", this::metrics);
+    }
+
+    private Object login(ApiRequest request) {
+        User user = userRepository.authenticate(request.bodyString("username"), request.bodyString("password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("token", sessions.create(user));
+        view.put("expiresInMinutes", config.getSessionTtlMinutes());
+        view.put("user", userView(user));
+        return view;
+    }
+
+    private Object logout(ApiRequest request) {
+        sessions.invalidate(bearerToken(request));
+        return Map.of("loggedOut", true);
+    }
+
+    private Object getRestaurant(ApiRequest request) {
+        Restaurant restaurant = restaurantRepository.getRestaurantById(request.pathInt("id"));
+        if (restaurant == null) {
+            throw new ApiException(404, "Restaurant not found");
+        }
+        return restaurantView(restaurant);
+    }
+
+    private Object getMenu(ApiRequest request) {
+        List<Product> products = productRepository.getProductsByRestaurantId(request.pathInt("id"));
+        List<Map<String, Object>> views = new ArrayList<>();
+        if (products != null) {
+            for (Product product : products) {
+                views.add(productView(product));
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Body: {@code {"restaurantId": 1, "items": [{"productId": 3, "quantity": 2}]}}.
+     */
+    private Object placeOrder(ApiRequest request) {
+        User user = requireUser(request, User.UserRole.CLIENT);
+        int restaurantId = request.bodyInt("restaurantId");
+        List<Map<String, Object>> requestedItems = request.bodyObjects("items");
+        if (requestedItems.isEmpty()) {
+            throw new ApiException(400, "Order must contain at least one item");
+        }
+
+        CompletableFuture<Restaurant> restaurantLookup = asyncRestaurantRepository.getRestaurantById(restaurantId);
+        CompletableFuture<List<Product>> menuLookup = asyncProductRepository.getProductsByRestaurantId(restaurantId);
+        Restaurant restaurant = restaurantLookup.join();
+        if (restaurant == null) {
+            throw new ApiException(404, "Restaurant not found");
+        }
+        List<Product> menu = menuLookup.join();
+
+        List<OrderItem> items = new ArrayList<>();
+        for (Map<String, Object> requested : requestedItems) {
+            int productId = ApiRequest.toInt("productId", requested.get("productId"));
+            int quantity = ApiRequest.toInt("quantity", requested.get("quantity"));
+            if (quantity < 1) {
+                throw new ApiException(400, "quantity must be at least 1");
+            }
+            Product product = menu == null ? null : menu.stream()
+                    .filter(p -> p.getId() == productId)
+                    .findFirst()
+                    .orElse(null);
+            if (product == null) {
+                throw new ApiException(400, "Product " + productId + " is not on this restaurant's menu");
+            }
+            items.add(new OrderItem(0, 0, product, quantity));
+        }
+
+        Order order = new Order(0, user, restaurant, items, LocalDateTime.now(), "PENDING");
+        if (!orderRepository.createOrder(order)) {
+            throw new ApiException(500, "Failed to place order");
+        }
+        return new HttpApiServer.Response(201, orderView(order));
+    }
+
+    /**
+     * Newest first, one page at a time; pass {@code next} from the previous response as
+     * {@code afterDate} and {@code afterId}.
+     */
+    private Object listOrders(ApiRequest request) {
+        requireUser(request, User.UserRole.EMPLOYEE);
+        int size = request.queryInt("size", config.getOrderPageSize(), 1, 500);
+        OrderCursor after = null;
+        if (request.query("afterDate") != null) {
+            try {
+                after = new OrderCursor(LocalDateTime.parse(request.query("afterDate")), request.queryInt("afterId", 0));
+            } catch (DateTimeParseException e) {
+                throw new ApiException(400, "afterDate must be a timestamp like 2024-01-31T12:00:00");
+            }
+        }
+        OrderPage page = orderRepository.getOrdersPage(after, size);
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("orders", orderViews(page.orders()));
+        view.put("next", page.nextCursor());
+        return view;
+    }
+
+    private Object myOrders(ApiRequest request) {
+        User user = requireUser(request, null);
+        return orderViews(orderRepository.getOrdersByUserId(user.getId()));
+    }
+
+    /**
+     * Body: {@code {"version": 0}}, the version listed by {@code /api/deliveries/available}.
+     */
+    private Object claimOrder(ApiRequest request) {
+        User user = requireUser(request, User.UserRole.DELIVERER);
+        int orderId = request.pathInt("id");
+        if (!orderRepository.claimOrder(orderId, request.bodyInt("version"), user.getId())) {
+            throw new ApiException(409, "Order is no longer available");
+        }
+        return Map.of("orderId", orderId, "claimed", true);
+    }
+
+    private Object availableOrders(ApiRequest request) {
+        requireUser(request, User.UserRole.DELIVERER);
+        int limit = request.queryInt("limit", config.getDispatchOfferSize(), 1, 500);
+        return DispatchQueue.getInstance().peek(limit);
+    }
+
+    private Object claimNextOrders(ApiRequest request) {
+        User user = requireUser(request, User.UserRole.DELIVERER);
+        int count = request.bodyInt("count", 1);
+        if (count < 1 || count > 100) {
+            throw new ApiException(400, "count must be between 1 and 100");
+        }
+        return Map.of("claimed", orderRepository.claimNextOrders(user.getId(), count));
+    }
+
+    private Object myDeliveries(ApiRequest request) {
+        User user = requireUser(request, User.UserRole.DELIVERER);
+        return orderViews(orderRepository.getDeliveriesByDelivererId(user.getId()));
+    }
+
+    private Object earnings(ApiRequest request) {
+        User user = requireUser(request, User.UserRole.DELIVERER);
+        LocalDate today = LocalDate.now();
+        LocalDate firstOfMonth = today.withDayOfMonth(1);
+        CompletableFuture<BigDecimal> todayEarnings = asyncOrderRepository.calculateDelivererEarnings(
+                user.getId(), today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        CompletableFuture<BigDecimal> monthEarnings = asyncOrderRepository.calculateDelivererEarnings(
+                user.getId(), firstOfMonth.atStartOfDay(), firstOfMonth.plusMonths(1).atStartOfDay());
+        CompletableFuture<BigDecimal> totalEarnings = asyncOrderRepository.calculateDelivererEarnings(user.getId());
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("today", todayEarnings.join());
+        view.put("month", monthEarnings.join());
+        view.put("total", totalEarnings.join());
+        return view;
+    }
+
+    /**
+     * {@code groupBy=restaurant} (default) or {@code day}, over {@code from <= day < to};
+     * the range defaults to today.
+     */
+    private Object salesReport(ApiRequest request) {
+        requireUser(request, User.UserRole.EMPLOYEE);
+        LocalDate from = request.queryDate("from", LocalDate.now());
+        LocalDate to = request.queryDate("to", from.plusDays(1));
+        String groupBy = request.query("groupBy");
+        if (groupBy == null || groupBy.equals("restaurant")) {
+            return orderRepository.getSalesByRestaurant(from, to);
+        }
+        if (groupBy.equals("day")) {
+            return orderRepository.getSalesByDay(from, to);
+        }
+        throw new ApiException(400, "groupBy must be restaurant or day");
+    }
+
+    private Object popularProducts(ApiRequest request) {
+        requireUser(request, User.UserRole.EMPLOYEE);
+        int limit = request.queryInt("limit", config.getIntProperty("reports.popularProducts.limit", 10), 1, 100);
+        LocalDate from = request.queryDate("from", null);
+        LocalDate to = request.queryDate("to", null);
+        List<ProductSales> sales = productRepository.getPopularProductSales(limit,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.atStartOfDay() : null,
+                request.queryInteger("restaurantId"));
+
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (ProductSales row : sales) {
+            Map<String, Object> view = productView(row.product());
+            view.put("orderCount", row.orderCount());
+            view.put("deliveredRevenue", row.deliveredRevenue());
+            views.add(view);
+        }
+        return views;
+    }
+
+    private Object metrics(ApiRequest request) {
+        requireUser(request, User.UserRole.EMPLOYEE);
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("requests", MetricsRegistry.snapshot(HttpApiServer.METRICS_PREFIX));
+        view.put("repositories", RepositoryMetrics.getStats());
+        view.put("queries", DatabaseConnection.getInstance().getQueryStats().stream().limit(TOP_QUERY_SHAPES).toList());
+        view.put("pool", DatabaseConnection.getInstance().getPoolStats());
+        view.put("caches", CatalogCache.getStats());
+        view.put("events", EventBus.getInstance().getStats());
+        view.put("dispatchQueueSize", DispatchQueue.getInstance().size());
+        view.put("sessions", sessions.size());
+        return view;
+    }
+
+    private User requireUser(ApiRequest request, User.UserRole role) {
+        String token = bearerToken(request);
+        if (token == null) {
+            throw new ApiException(401, "Missing " + AUTH_HEADER + " header with a bearer token");
+        }
+        User user = sessions.get(token);
+        if (user == null) {
+            throw new ApiException(401, "Session expired or unknown; log in again");
+        }
+        if (role != null && user.getRole() != role) {
+            throw new ApiException(403, "Only " + role + " users may do this");
+        }
+        return user;
+    }
+
+    private static String bearerToken(ApiRequest request) {
+        String header = request.header(AUTH_HEADER);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private static Map<String, Object> userView(User user) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", user.getId());
+        view.put("username", user.getUsername());
+        view.put("role", user.getRole());
+        return view;
+    }
+
+    private static List<Map<String, Object>> restaurantViews(List<Restaurant> restaurants) {
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            views.add(restaurantView(restaurant));
+        }
+        return views;
+    }
+
+    private static Map<String, Object> restaurantView(Restaurant restaurant) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", restaurant.getId());
+        view.put("name", restaurant.getName());
+        view.put("address", restaurant.getAddress());
+        view.put("phone", restaurant.getPhone());
+        return view;
+    }
+
+    private static Map<String, Object> productView(Product product) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", product.getId());
+        view.put("name", product.getName());
+        view.put("price", product.getPrice());
+        view.put("description", product.getDescription());
+        view.put("restaurantId", product.getRestaurant() != null ? product.getRestaurantId() : null);
+        return view;
+    }
+
+    private static List<Map<String, Object>> orderViews(List<Order> orders) {
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (Order order : orders) {
+            views.add(orderView(order));
+        }
+        return views;
+    }
+
+    private static Map<String, Object> orderView(Order order) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            Map<String, Object> itemView = new LinkedHashMap<>();
+            itemView.put("productId", item.getProductId());
+            itemView.put("name", item.getProduct() != null ? item.getProduct().getName() : null);
+            itemView.put("quantity", item.getQuantity());
+            itemView.put("unitPrice", item.getUnitPrice());
+            itemView.put("subtotal", item.getSubtotal());
+            items.add(itemView);
+        }
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", order.getId());
+        view.put("userId", order.getUser() != null ? order.getUserId() : null);
+        view.put("restaurantId", order.getRestaurant() != null ? order.getRestaurantId() : null);
+        view.put("restaurantName", order.getRestaurant() != null ? order.getRestaurant().getName() : null);
+        view.put("status", order.getStatus());
+        view.put("orderDate", order.getOrderDate());
+        view.put("version", order.getVersion());
+        view.put("total", order.getTotal());
+        view.put("items", items);
+        return view;
+    }
+}
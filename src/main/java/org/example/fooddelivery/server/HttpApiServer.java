@@ -0,0 +1,163 @@
+package org.example.fooddelivery.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.fooddelivery.metrics.ActionScope;
+import org.example.fooddelivery.metrics.LatencyHistogram;
+import org.example.fooddelivery.metrics.MetricsRegistry;
+import org.example.fooddelivery.metrics.UserActionEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JSON API over the JDK {@link HttpServer}, one virtual thread per request. Routes are registered
+ * by {@link FoodDeliveryApi}; every route gets a latency histogram named
+ * {@code http.<METHOD> <template>} in the {@link MetricsRegistry}, and each request is emitted as
+ * a {@link UserActionEvent} with the response status as its outcome. Handlers run inside an
+ * {@link ActionScope}, so a request over the round-trip budget is logged, or fails with a 500
+ * when the budget is enforced.
+ */
+public final class HttpApiServer {
+    private static final Logger LOGGER = Logger.getLogger(HttpApiServer.class.getName());
+    static final String METRICS_PREFIX = "http.";
+    private static final String CHANNEL = "http";
+    private static final Pattern PATH_PARAM = Pattern.compile("\\{(\\w+)}");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Route> routes = new ArrayList<>();
+
+    public HttpApiServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        new FoodDeliveryApi().registerRoutes(this);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits up to {@code delaySeconds} for running ones to finish.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    void route(String method, String template, Handler handler) {
+        List<String> paramNames = new ArrayList<>();
+        Matcher matcher = PATH_PARAM.matcher(template);
+        while (matcher.find()) {
+            paramNames.add(matcher.group(1));
+        }
+        String regex = PATH_PARAM.matcher(template).replaceAll("(?<$1>[^/]+)");
+        String name = method + " " + template;
+        routes.add(new Route(name, method, Pattern.compile(regex), paramNames, handler,
+                MetricsRegistry.histogram(METRICS_PREFIX + name)));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        UserActionEvent event = new UserActionEvent(CHANNEL, null, 0, null);
+        event.begin();
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        Route matched = null;
+        boolean pathMatched = false;
+        Map<String, String> pathParams = new HashMap<>();
+        for (Route route : routes) {
+            Matcher matcher = route.pattern().matcher(path);
+            if (!matcher.matches()) {
+                continue;
+            }
+            pathMatched = true;
+            if (route.method().equals(method)) {
+                matched = route;
+                for (String name : route.paramNames()) {
+                    pathParams.put(name, matcher.group(name));
+                }
+                break;
+            }
+        }
+
+        int status = 500;
+        try {
+            if (matched == null) {
+                throw pathMatched ? new ApiException(405, "Method not allowed") : new ApiException(404, "Not found");
+            }
+            Object result;
+            try (ActionScope scope = ActionScope.open(matched.name())) {
+                result = matched.handler().handle(new ApiRequest(exchange, pathParams));
+                event.setRoundTrips(scope.getRoundTrips());
+            }
+            if (result instanceof Response response) {
+                status = response.status();
+                send(exchange, status, response.body());
+            } else {
+                status = 200;
+                send(exchange, status, result);
+            }
+        } catch (ApiException e) {
+            status = e.getStatus();
+            send(exchange, status, Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, method + " " + path + " failed", e);
+            send(exchange, status, Map.of("error", "Internal server error"));
+        } finally {
+            exchange.close();
+            if (matched != null) {
+                matched.latency().record(System.nanoTime() - start);
+            }
+            if (event.shouldCommit()) {
+                event.setAction(matched != null ? matched.name() : method + " " + path);
+                event.setOutcome(String.valueOf(status));
+                event.commit();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        Object handle(ApiRequest request);
+    }
+
+    /**
+     * Lets a handler choose the status code; a plain return value is sent with 200.
+     */
+    record Response(int status, Object body) {
+    }
+
+    private record Route(String name, String method, Pattern pattern, List<String> paramNames, Handler handler,
+                         LatencyHistogram latency) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.metrics.ActionScope;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking repository calls on virtual threads. At most {@code async.maxConcurrency} tasks
+ * (by default the connection pool size) run at once; the rest wait here, cheaply, instead of
+ * queueing on the pool where they would count against the borrow timeout.
+ */
+public final class AsyncExecutor {
+    private static AsyncExecutor instance;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    AsyncExecutor(int maxConcurrency) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("repo-async-", 0).factory());
+        this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+    }
+
+    public static synchronized AsyncExecutor getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new AsyncExecutor(config.getIntProperty("async.maxConcurrency", config.getPoolMaxSize()));
+        }
+        return instance;
+    }
+
+    /**
+     * Runs {@code task} on a virtual thread; its round trips count against the caller's
+     * {@link ActionScope}.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        Supplier<T> scoped = ActionScope.propagate(task);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return scoped.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
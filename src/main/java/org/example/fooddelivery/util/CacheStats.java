@@ -0,0 +1,15 @@
+package org.example.fooddelivery.util;
+
+public record CacheStats(String name, int size, long hits, long misses, long evictions) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f",
+                name, size, hits, misses, evictions, hitRatio());
+    }
+}
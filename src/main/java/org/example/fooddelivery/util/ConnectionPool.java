@@ -0,0 +1,316 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.config.AppConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded, thread-safe JDBC connection pool.
+ *
+ * <p>At most {@code maxSize} connections are handed out at once; further borrowers wait up to the
+ * borrow timeout. Idle connections are reused most-recently-used first, validated on borrow and
+ * evicted by a background housekeeper once idle for longer than the idle timeout (never below
+ * {@code minSize}). Connections held longer than the leak detection threshold are reported
+ * together with the stack trace of the borrower.</p>
+ */
+public final class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdNanos;
+    private final boolean validateOnBorrow;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsEvicted = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(AppConfig config) {
+        this.url = config.getDbUrl();
+        this.user = config.getDbUser();
+        this.password = config.getDbPassword();
+        this.maxSize = Math.max(1, config.getPoolMaxSize());
+        this.minSize = Math.max(0, Math.min(config.getPoolMinSize(), maxSize));
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getPoolIdleTimeoutMillis());
+        this.borrowTimeoutMillis = config.getPoolBorrowTimeoutMillis();
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getPoolLeakDetectionThresholdMillis());
+        this.validateOnBorrow = config.isPoolValidateOnBorrow();
+        this.validationTimeoutSeconds = config.getPoolValidationTimeoutSeconds();
+        this.statementCacheSize = config.getStatementCacheSize();
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(1_000L, Math.min(30_000L, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 4));
+        housekeeper.scheduleAtFixedRate(this::housekeep, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        boolean acquired;
+        waiters.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+
+        if (!acquired) {
+            throw timedOut();
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate(deadline);
+            pooled.markBorrowed(leakThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null);
+            borrowed.add(pooled);
+            recordBorrow(System.nanoTime() - start);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (closed || !pooled.reset()) {
+                discard(pooled);
+            } else {
+                pooled.markIdle();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        int idleCount = idle.size();
+        return new PoolStats(
+                totalConnections.get(),
+                borrowed.size(),
+                idleCount,
+                waiters.get(),
+                borrows,
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(borrowNanos.sum() / borrows),
+                TimeUnit.NANOSECONDS.toMicros(maxBorrowNanos.get()),
+                borrowTimeouts.sum(),
+                connectionsCreated.sum(),
+                connectionsEvicted.sum(),
+                leaksDetected.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum()
+        );
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        // Borrowed connections are closed as their handles are returned.
+    }
+
+    private PooledConnection takeIdleOrCreate(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled == null) {
+                if (reserveSlot(maxSize)) {
+                    return openReserved();
+                }
+                // Every slot belongs to a connection that the housekeeper is opening, another
+                // borrower is returning or the housekeeper is evicting. An eviction frees its slot
+                // without putting anything in the deque, so wait briefly and try both again.
+                pooled = awaitIdle(deadline);
+                if (pooled == null) {
+                    continue;
+                }
+            }
+            if (!validateOnBorrow || pooled.isValid(validationTimeoutSeconds)) {
+                return pooled;
+            }
+            LOGGER.fine("Discarding connection that failed validation");
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Waits up to {@link #IDLE_POLL_NANOS} for a connection to be returned; null when none was, so
+     * the caller can look for a free slot again. Throws once {@code deadline} has passed.
+     */
+    private PooledConnection awaitIdle(long deadline) throws SQLException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw timedOut();
+        }
+        try {
+            return idle.pollFirst(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private SQLTimeoutException timedOut() {
+        borrowTimeouts.increment();
+        return new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                + " ms waiting for a database connection (" + getStats() + ")");
+    }
+
+    /**
+     * Counts a connection against the pool before it is opened, so concurrent borrowers and the
+     * housekeeper can never open more than {@code limit} between them.
+     */
+    private boolean reserveSlot(int limit) {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Opens the connection for a slot taken with {@link #reserveSlot}, giving the slot back if that
+     * fails.
+     */
+    private PooledConnection openReserved() throws SQLException {
+        Connection raw;
+        try {
+            raw = DriverManager.getConnection(url, user, password);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+        connectionsCreated.increment();
+        return new PooledConnection(this, raw, statementCacheSize);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.closePhysically();
+    }
+
+    void recordStatementCacheHit() {
+        statementCacheHits.increment();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.increment();
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        // The deque is used LIFO, so the longest-idle connections sit at the tail.
+        Iterator<PooledConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = iterator.next();
+            if (now - pooled.getLastUsedNanos() < idleTimeoutNanos) {
+                break;
+            }
+            if (idle.remove(pooled)) {
+                connectionsEvicted.increment();
+                discard(pooled);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && reserveSlot(minSize)) {
+            try {
+                idle.offerLast(openReserved());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Failed to open connection while filling the pool to its minimum size", e);
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.isLeakReported() && now - pooled.getBorrowedAtNanos() > leakThresholdNanos) {
+                pooled.setLeakReported(true);
+                leaksDetected.increment();
+                LOGGER.log(Level.WARNING, "Possible connection leak: connection held for more than "
+                        + TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos) + " ms", pooled.getBorrowTrace());
+            }
+        }
+    }
+}
@@ -3,19 +3,24 @@ package org.example.fooddelivery.util;
 import org.example.fooddelivery.config.AppConfig;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DatabaseConnection {
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
     private static DatabaseConnection instance;
-    private Connection connection;
+    private volatile ConnectionPool pool;
     private final AppConfig config;
+    private final QueryTracer queryTracer;
 
     private DatabaseConnection() {
         this.config = AppConfig.getInstance();
+        long slowQueryThreshold = config.getSlowQueryThresholdMillis();
+        this.queryTracer = slowQueryThreshold >= 0
+                ? new QueryTracer(slowQueryThreshold, config.isSlowQueryExplainEnabled(), () -> getPool().borrow())
+                : null;
     }
 
     public static synchronized DatabaseConnection getInstance() {
@@ -25,50 +30,71 @@ public class DatabaseConnection {
         return instance;
     }
 
+    /**
+     * Borrows a connection from the pool. Closing the returned connection hands it back to the pool.
+     */
     public Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName(config.getDbDriver());
-                connection = DriverManager.getConnection(
-                        config.getDbUrl(),
-                        config.getDbUser(),
-                        config.getDbPassword()
-                );
-                LOGGER.info("Database connection established successfully");
-            }
-        } catch (ClassNotFoundException e) {
-            LOGGER.log(Level.SEVERE, "Database driver not found", e);
-            throw new RuntimeException("Database driver not found", e);
+            Connection connection = getPool().borrow();
+            return queryTracer != null ? queryTracer.wrap(connection) : connection;
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to establish database connection", e);
-            throw new RuntimeException("Failed to establish database connection", e);
+            LOGGER.log(Level.SEVERE, "Failed to obtain database connection", e);
+            throw new RuntimeException("Failed to obtain database connection", e);
         }
-        return connection;
     }
 
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-                LOGGER.info("Database connection closed successfully");
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Error closing database connection", e);
-            }
+    public PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Per-shape statement timings, most expensive first; empty when statement tracing is off.
+     */
+    public List<QueryStats> getQueryStats() {
+        return queryTracer != null ? queryTracer.getStats() : List.of();
+    }
+
+    public synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            LOGGER.info("Database connection pool shut down");
         }
     }
 
     public void reconnect() {
         closeConnection();
-        getConnection();
+        getPool();
     }
 
     public boolean testConnection() {
         try (Connection testConn = getConnection()) {
             return testConn != null && !testConn.isClosed();
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             LOGGER.log(Level.WARNING, "Database connection test failed", e);
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName(config.getDbDriver());
+                    } catch (ClassNotFoundException e) {
+                        LOGGER.log(Level.SEVERE, "Database driver not found", e);
+                        throw new RuntimeException("Database driver not found", e);
+                    }
+                    current = new ConnectionPool(config);
+                    pool = current;
+                    LOGGER.info("Database connection pool initialized");
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -1,6 +1,30 @@
 package org.example.fooddelivery.util;
 
+import org.example.fooddelivery.config.AppConfig;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Password rules and storage. Passwords are stored as
+ * {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} with a random salt per password; the iteration
+ * count comes from {@code security.password.iterations}, so raising it only affects passwords
+ * hashed afterwards. Plain passwords from before hashing was introduced are hashed by schema
+ * migration V7 and never verify.
+ */
 public class PasswordUtils {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // checked when the username is unknown, so that costs as much as a wrong password
+    private static volatile String dummyHash;
 
     public static boolean isPasswordValid(String password) {
         if (password == null) return false;
@@ -14,4 +38,90 @@ public class PasswordUtils {
                 "- Contain at least one letter\n" +
                 "- Contain at least one number";
     }
+
+    /**
+     * A salted hash of {@code password} at the configured iteration count.
+     */
+    public static String hash(String password) {
+        int iterations = AppConfig.getInstance().getPasswordHashIterations();
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Whether {@code password} matches {@code stored}, a hash from {@link #hash}. Pass a null
+     * {@code stored} for an unknown username: the password is then checked against a dummy hash
+     * at the configured cost, so response times do not reveal which usernames exist.
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null) {
+            return false;
+        }
+        if (stored == null) {
+            verify(password, dummyHash());
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return false;
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[2]);
+            return MessageDigest.isEqual(expected, derive(password, decoder.decode(parts[1]), Integer.parseInt(parts[0])));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether {@code stored} is a plain password or was hashed with a different iteration count,
+     * so it should be replaced with a fresh hash once the password has been verified.
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        if (end < 0) {
+            return true;
+        }
+        String iterations = stored.substring(PREFIX.length(), end);
+        return !iterations.equals(String.valueOf(AppConfig.getInstance().getPasswordHashIterations()));
+    }
+
+    /**
+     * Whether {@code stored} is in the format written by {@link #hash}.
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static String dummyHash() {
+        String current = dummyHash;
+        if (current == null || needsRehash(current)) {
+            byte[] password = new byte[SALT_BYTES];
+            RANDOM.nextBytes(password);
+            current = hash(Base64.getEncoder().encodeToString(password));
+            dummyHash = current;
+        }
+        return current;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
 }
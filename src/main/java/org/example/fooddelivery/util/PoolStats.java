@@ -0,0 +1,31 @@
+package org.example.fooddelivery.util;
+
+public record PoolStats(
+        int totalConnections,
+        int activeConnections,
+        int idleConnections,
+        int waitingThreads,
+        long borrowCount,
+        long averageBorrowMicros,
+        long maxBorrowMicros,
+        long borrowTimeouts,
+        long connectionsCreated,
+        long connectionsEvicted,
+        long leaksDetected,
+        long statementCacheHits,
+        long statementCacheMisses
+) {
+    public double statementReuseRatio() {
+        long prepares = statementCacheHits + statementCacheMisses;
+        return prepares == 0 ? 0.0 : (double) statementCacheHits / prepares;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "total=%d, active=%d, idle=%d, waiting=%d, borrows=%d, avgBorrow=%dus, maxBorrow=%dus, timeouts=%d, created=%d, evicted=%d, leaks=%d, statementReuse=%.2f",
+                totalConnections, activeConnections, idleConnections, waitingThreads, borrowCount,
+                averageBorrowMicros, maxBorrowMicros, borrowTimeouts, connectionsCreated, connectionsEvicted, leaksDetected,
+                statementReuseRatio());
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.fooddelivery.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A physical connection owned by {@link ConnectionPool}. Callers only ever see a proxy handle
+ * whose {@code close()} hands the connection back to the pool instead of closing it.
+ */
+final class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection raw;
+    private final StatementCache statementCache;
+    private volatile long lastUsedNanos;
+    private volatile long borrowedAtNanos;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+
+    PooledConnection(ConnectionPool pool, Connection raw, int statementCacheSize) {
+        this.pool = pool;
+        this.raw = raw;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(statementCacheSize, pool) : null;
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    Connection newHandle() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle()
+        );
+    }
+
+    void markBorrowed(Throwable trace) {
+        borrowedAtNanos = System.nanoTime();
+        borrowTrace = trace;
+        leakReported = false;
+    }
+
+    void markIdle() {
+        lastUsedNanos = System.nanoTime();
+        borrowTrace = null;
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    long getBorrowedAtNanos() {
+        return borrowedAtNanos;
+    }
+
+    Throwable getBorrowTrace() {
+        return borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void setLeakReported(boolean leakReported) {
+        this.leakReported = leakReported;
+    }
+
+    boolean isValid(int timeoutSeconds) {
+        try {
+            return !raw.isClosed() && raw.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undoes per-borrow state (statements left open, open transactions, warnings) so the next
+     * borrower starts clean. Returns false when the connection is no longer usable and should be
+     * discarded.
+     */
+    boolean reset() {
+        if (statementCache != null) {
+            statementCache.checkInAll();
+        }
+        try {
+            if (raw.isClosed()) {
+                return false;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            raw.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysically() {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        try {
+            raw.close();
+        } catch (SQLException ignored) {
+            // the connection is being discarded anyway
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    if (closed.get()) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + raw + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (statementCache != null && isCacheablePrepare(method)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : StatementCache.NO_GENERATED_KEYS_FLAG;
+                return statementCache.prepare(raw, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean isCacheablePrepare(Method method) {
+            if (!method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+}
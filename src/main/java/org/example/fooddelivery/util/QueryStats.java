@@ -0,0 +1,19 @@
+package org.example.fooddelivery.util;
+
+/**
+ * Execution totals for one SQL shape: the statement text with literals, parameter lists and
+ * repeated {@code VALUES} groups collapsed. {@code plan} is the EXPLAIN output captured for the
+ * first slow execution, or null.
+ */
+public record QueryStats(String shape, long count, long slowCount, double totalMillis, double maxMillis,
+                         String plan) {
+    public double averageMillis() {
+        return count == 0 ? 0.0 : totalMillis / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, slow=%d, total=%.1fms, avg=%.2fms, max=%.1fms: %s",
+                count, slowCount, totalMillis, averageMillis(), maxMillis, shape);
+    }
+}
@@ -0,0 +1,318 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.metrics.ActionScope;
+import org.example.fooddelivery.metrics.RepositoryMetrics;
+import org.example.fooddelivery.metrics.SqlStatementEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Times every statement executed through a wrapped connection and aggregates the timings per SQL
+ * shape. Executions at or above the threshold are logged with their bound parameters; with
+ * EXPLAIN capture on, the first slow execution of each SELECT shape is explained on a separate
+ * connection in the background, so the caller is not held up. Statements on the users table or
+ * on a password column are logged as their shape with the parameters redacted, and are not
+ * explained, so credentials never reach the log.
+ *
+ * <p>Only execution is timed. Rows fetched afterwards from a result set are not included. Each
+ * execution is also emitted as a {@link SqlStatementEvent} and counted against the current
+ * {@link ActionScope}.</p>
+ */
+final class QueryTracer {
+    private static final Logger LOGGER = Logger.getLogger(QueryTracer.class.getName());
+    private static final int MAX_SHAPES = 1000;
+    private static final String OTHER_SHAPE = "(other statements)";
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern REPEATED_GROUP = Pattern.compile("\\(\\?(?:\\.\\.\\.)?\\)(?:\\s*,\\s*\\(\\?(?:\\.\\.\\.)?\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SENSITIVE = Pattern.compile("\\busers\\b|passw(?:or)?d", Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final Callable<Connection> explainConnections;
+    private final Map<String, String> shapeBySql = new ConcurrentHashMap<>();
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    QueryTracer(long thresholdMillis, boolean explain, Callable<Connection> explainConnections) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.explainConnections = explainConnections;
+    }
+
+    Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandle(connection)
+        );
+    }
+
+    /**
+     * Shapes ordered by total time spent, most expensive first.
+     */
+    List<QueryStats> getStats() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Shape shape : shapes.values()) {
+            stats.add(shape.toStats());
+        }
+        stats.sort(Comparator.comparingDouble(QueryStats::totalMillis).reversed());
+        return stats;
+    }
+
+    private void record(String sql, Map<Integer, Object> parameters, int batchSize, long durationNanos,
+                        SqlStatementEvent event) {
+        if (sql == null) {
+            return;
+        }
+        boolean slow = durationNanos >= thresholdNanos;
+        Shape shape = shapeFor(sql);
+        shape.record(durationNanos, slow);
+        event.commit(shape.name, batchSize, slow);
+        RepositoryMetrics.recordStatement(shape.name);
+        ActionScope.recordRoundTrip(shape.name);
+        if (!slow) {
+            return;
+        }
+
+        boolean sensitive = isSensitive(sql);
+        LOGGER.warning(String.format("Slow statement (%.1f ms): %s%s%s", durationNanos / 1_000_000.0,
+                sensitive ? shape.name : WHITESPACE.matcher(sql.trim()).replaceAll(" "),
+                parameters.isEmpty() ? "" : " with parameters " + describe(parameters, sensitive),
+                batchSize > 0 ? " (batch of " + batchSize + ")" : ""));
+        if (explain && !sensitive && isSelect(sql) && !shape.name.equals(OTHER_SHAPE)
+                && shape.explained.compareAndSet(false, true)) {
+            Map<Integer, Object> bound = new TreeMap<>(parameters);
+            Thread.ofVirtual().name("explain-capture").start(() -> captureExplain(shape, sql, bound));
+        }
+    }
+
+    private Shape shapeFor(String sql) {
+        String name = shapeBySql.get(sql);
+        if (name == null) {
+            name = normalize(sql);
+            if (shapeBySql.size() < MAX_SHAPES) {
+                shapeBySql.put(sql, name);
+            }
+        }
+        Shape shape = shapes.get(name);
+        if (shape == null) {
+            String key = shapes.size() < MAX_SHAPES ? name : OTHER_SHAPE;
+            shape = shapes.computeIfAbsent(key, Shape::new);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("?...");
+        return REPEATED_GROUP.matcher(shape).replaceAll("(?...), ...");
+    }
+
+    private void captureExplain(Shape shape, String sql, Map<Integer, Object> parameters) {
+        try (Connection conn = explainConnections.call();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                stmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    List<String> columns = new ArrayList<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        columns.add(meta.getColumnLabel(i) + "=" + rs.getString(i));
+                    }
+                    plan.append(plan.isEmpty() ? "" : "\n").append(String.join(", ", columns));
+                }
+            }
+            shape.plan = plan.toString();
+            LOGGER.warning("EXPLAIN for slow statement " + shape.name + ":\n" + shape.plan);
+        } catch (Exception e) {
+            LOGGER.log(Level.INFO, "Could not capture EXPLAIN for " + shape.name, e);
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String start = sql.stripLeading();
+        return start.regionMatches(true, 0, "SELECT", 0, 6) || start.regionMatches(true, 0, "WITH", 0, 4);
+    }
+
+    static boolean isSensitive(String sql) {
+        return SENSITIVE.matcher(sql).find();
+    }
+
+    static String describe(Map<Integer, Object> parameters, boolean redact) {
+        if (redact) {
+            return "[" + parameters.size() + " redacted]";
+        }
+        StringBuilder text = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            if (text.length() > 1) {
+                text.append(", ");
+            }
+            String value = String.valueOf(parameter.getValue());
+            if (value.length() > MAX_LOGGED_VALUE_LENGTH) {
+                value = value.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+            }
+            text.append(parameter.getKey()).append('=').append(value);
+        }
+        return text.append(']').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Shape {
+        final String name;
+        final LongAdder count = new LongAdder();
+        final LongAdder slowCount = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicBoolean explained = new AtomicBoolean();
+        volatile String plan;
+
+        Shape(String name) {
+            this.name = name;
+        }
+
+        void record(long durationNanos, boolean slow) {
+            count.increment();
+            if (slow) {
+                slowCount.increment();
+            }
+            totalNanos.add(durationNanos);
+            maxNanos.accumulateAndGet(durationNanos, Math::max);
+        }
+
+        QueryStats toStats() {
+            return new QueryStats(name, count.sum(), slowCount.sum(), totalNanos.sum() / 1_000_000.0,
+                    maxNanos.get() / 1_000_000.0, plan);
+        }
+    }
+
+    private final class ConnectionHandle implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandle(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = QueryTracer.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().equals("createStatement") ? null : (String) args[0];
+                return Proxy.newProxyInstance(
+                        Statement.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()},
+                        new StatementHandle(statement, sql, (Connection) proxy)
+                );
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandle implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final Connection connection;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private int batchSize;
+
+        StatementHandle(Statement target, String sql, Connection connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "clearParameters":
+                    parameters.clear();
+                    break;
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                default:
+                    if (isParameterSetter(method)) {
+                        parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                return QueryTracer.invoke(target, method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            SqlStatementEvent event = new SqlStatementEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                return QueryTracer.invoke(target, method, args);
+            } finally {
+                record(executed, parameters, name.equals("executeBatch") ? batchSize : 0, System.nanoTime() - start, event);
+                if (name.equals("executeBatch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private boolean isParameterSetter(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return method.getName().startsWith("set") && types.length >= 2 && types[0] == int.class;
+        }
+    }
+}
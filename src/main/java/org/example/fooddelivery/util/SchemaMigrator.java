@@ -0,0 +1,201 @@
+package org.example.fooddelivery.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Applies the versioned SQL scripts under {@code db/migration} that have not been applied yet and
+ * records each one in {@code schema_version}. Scripts run in the order listed in {@link #MIGRATIONS};
+ * a migration found in {@link #JAVA_MIGRATIONS} runs that code instead of a script, for changes
+ * SQL cannot express.
+ *
+ * <p>A script is only recorded once all of its statements succeeded, and MySQL commits DDL
+ * implicitly, so a script that fails part way is run again from the top next time. Scripts are
+ * written to allow that: DDL for objects that already exist is skipped, and backfills only insert
+ * rows that are not there yet.</p>
+ */
+public class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String MIGRATION_PATH = "db/migration/";
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__create_tables.sql",
+            "V2__add_indexes.sql",
+            "V3__create_daily_sales.sql",
+            "V4__create_deliverer_earnings.sql",
+            "V5__add_order_totals.sql",
+            "V6__add_order_version.sql",
+            "V7__hash_plain_passwords"
+    );
+
+    private static final Map<String, JavaMigration> JAVA_MIGRATIONS = Map.of(
+            "V7__hash_plain_passwords", SchemaMigrator::hashPlainPasswords
+    );
+
+    // Objects that already exist on databases set up by hand before migrations were introduced.
+    private static final Set<Integer> ALREADY_EXISTS_ERRORS = Set.of(
+            1050,   // MySQL: table already exists
+            1060,   // MySQL: duplicate column name
+            1061,   // MySQL: duplicate key name
+            42101,  // H2: table already exists
+            42111,  // H2: index already exists
+            42121   // H2: duplicate column name
+    );
+
+    private final DatabaseConnection dbConnection;
+
+    public SchemaMigrator(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    public int migrate() {
+        int applied = 0;
+        try (Connection conn = dbConnection.getConnection()) {
+            createVersionTable(conn);
+            Set<Integer> appliedVersions = getAppliedVersions(conn);
+
+            for (String migration : MIGRATIONS) {
+                int version = parseVersion(migration);
+                if (appliedVersions.contains(version)) {
+                    continue;
+                }
+                LOGGER.info("Applying schema migration " + migration);
+                JavaMigration javaMigration = JAVA_MIGRATIONS.get(migration);
+                if (javaMigration != null) {
+                    javaMigration.apply(conn);
+                } else {
+                    for (String statement : readStatements(migration)) {
+                        execute(conn, statement);
+                    }
+                }
+                recordVersion(conn, version, migration);
+                applied++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Schema migration failed", e);
+            throw new RuntimeException("Schema migration failed", e);
+        }
+        return applied;
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INT PRIMARY KEY,
+                    description VARCHAR(255) NOT NULL,
+                    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+        }
+    }
+
+    private Set<Integer> getAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt("version"));
+            }
+        }
+        return versions;
+    }
+
+    private void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            if (!ALREADY_EXISTS_ERRORS.contains(e.getErrorCode())) {
+                throw e;
+            }
+            LOGGER.fine("Skipping statement for an object that already exists: " + e.getMessage());
+        }
+    }
+
+    private void recordVersion(Connection conn, int version, String migration) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            stmt.setInt(1, version);
+            stmt.setString(2, migration);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Replaces passwords stored in plain text, from before hashing was introduced, with hashes.
+     * Each row is updated only if it still holds the password that was read, so a password
+     * changed meanwhile is left alone, and a re-run only touches rows still in plain text.
+     */
+    private static void hashPlainPasswords(Connection conn) throws SQLException {
+        Map<Integer, String> plain = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, password FROM users")) {
+            while (rs.next()) {
+                String stored = rs.getString("password");
+                if (!PasswordUtils.isHashed(stored)) {
+                    plain.put(rs.getInt("id"), stored);
+                }
+            }
+        }
+        if (plain.isEmpty()) {
+            return;
+        }
+
+        LOGGER.info("Hashing " + plain.size() + " plain text password(s)");
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE users SET password = ? WHERE id = ? AND password = ?")) {
+            for (Map.Entry<Integer, String> user : plain.entrySet()) {
+                stmt.setString(1, PasswordUtils.hash(user.getValue()));
+                stmt.setInt(2, user.getKey());
+                stmt.setString(3, user.getValue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static int parseVersion(String migration) {
+        return Integer.parseInt(migration.substring(1, migration.indexOf("__")));
+    }
+
+    private static List<String> readStatements(String migration) {
+        String script;
+        try (InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(MIGRATION_PATH + migration)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration script not found: " + migration);
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read migration script " + migration, e);
+        }
+
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    @FunctionalInterface
+    private interface JavaMigration {
+        void apply(Connection conn) throws SQLException;
+    }
+}
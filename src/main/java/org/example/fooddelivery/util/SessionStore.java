@@ -0,0 +1,103 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.example.fooddelivery.model.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory login sessions, so a request can be tied to its user with one map lookup instead of a
+ * database round trip and a password check. A session expires after
+ * {@code security.session.ttlMinutes} without use. Sessions do not survive a restart.
+ */
+public final class SessionStore {
+    private static final int TOKEN_BYTES = 32;
+    private static final int SWEEP_EVERY = 1024;
+    private static SessionStore instance;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger createdSinceSweep = new AtomicInteger();
+    private final long ttlNanos;
+
+    SessionStore(long ttlNanos) {
+        this.ttlNanos = ttlNanos;
+    }
+
+    public static synchronized SessionStore getInstance() {
+        if (instance == null) {
+            instance = new SessionStore(TimeUnit.MINUTES.toNanos(AppConfig.getInstance().getSessionTtlMinutes()));
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a session for an authenticated user and returns its token.
+     */
+    public String create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, System.nanoTime() + ttlNanos));
+        if (createdSinceSweep.incrementAndGet() >= SWEEP_EVERY) {
+            createdSinceSweep.set(0);
+            purgeExpired();
+        }
+        return token;
+    }
+
+    /**
+     * The user behind {@code token}, or null when the token is unknown or has expired. A valid
+     * token's expiry is pushed back by the TTL.
+     */
+    public User get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.expiresAt > 0) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + ttlNanos;
+        return session.user;
+    }
+
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Drops expired sessions that were never looked up again. Runs every {@value #SWEEP_EVERY}
+     * logins.
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> now - session.expiresAt > 0);
+    }
+
+    private static final class Session {
+        final User user;
+        volatile long expiresAt;
+
+        Session(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.fooddelivery.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * <p>Callers get a proxy whose {@code close()} closes any result sets it produced, clears the
+ * parameters, restores the fetch size, row limits and query timeout and hands the statement back
+ * to the cache. A statement that is still checked out when the same SQL is prepared again (nested
+ * use) is bypassed with an uncached statement that is closed for real. Statements the caller never
+ * closed are checked in when the connection goes back to the pool.</p>
+ *
+ * <p>Guarded by a {@link ReentrantLock} rather than a monitor, which would pin the carrier of a
+ * virtual thread while it closes statements.</p>
+ */
+final class StatementCache {
+    static final int NO_GENERATED_KEYS_FLAG = -1;
+
+    // Statement settings put back to their defaults on check-in; any other Statement setter makes
+    // the statement unfit for reuse.
+    private static final Set<String> RESTORED_SETTERS = Set.of(
+            "setFetchSize", "setMaxRows", "setLargeMaxRows", "setQueryTimeout", "setMaxFieldSize");
+
+    private final int maxSize;
+    private final ConnectionPool pool;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Entry> checkedOut = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ReentrantLock lock = new ReentrantLock();
+
+    StatementCache(int maxSize, ConnectionPool pool) {
+        this.maxSize = maxSize;
+        this.pool = pool;
+    }
+
+    PreparedStatement prepare(Connection raw, Connection handle, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.inUse) {
+                entry.inUse = true;
+                pool.recordStatementCacheHit();
+                return entry.checkOut(handle);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        pool.recordStatementCacheMiss();
+        Entry entry = new Entry(prepareRaw(raw, key));
+        entry.inUse = true;
+        lock.lock();
+        try {
+            Entry current = entries.get(key);
+            if (current != null && current.inUse) {
+                // nested use: never cached, closed for real on check-in
+                entry.evicted = true;
+            } else {
+                if (current != null) {
+                    retire(current);
+                }
+                entries.put(key, entry);
+                evictOverflow();
+            }
+            return entry.checkOut(handle);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks in every statement the borrower left open, as if it had closed them. Called when the
+     * connection is handed back to the pool.
+     */
+    void checkInAll() {
+        List<Handle> abandoned = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Entry entry : checkedOut) {
+                abandoned.add(entry.handle);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Handle handle : abandoned) {
+            handle.close();
+        }
+    }
+
+    void closeAll() {
+        lock.lock();
+        try {
+            for (Entry entry : entries.values()) {
+                entry.closePhysically();
+            }
+            entries.clear();
+            for (Entry entry : checkedOut) {
+                entry.closePhysically();
+            }
+            checkedOut.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static PreparedStatement prepareRaw(Connection raw, Key key) throws SQLException {
+        return key.autoGeneratedKeys == NO_GENERATED_KEYS_FLAG
+                ? raw.prepareStatement(key.sql)
+                : raw.prepareStatement(key.sql, key.autoGeneratedKeys);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            retire(eldest);
+        }
+    }
+
+    private void retire(Entry entry) {
+        if (entry.inUse) {
+            entry.evicted = true;
+        } else {
+            entry.closePhysically();
+        }
+    }
+
+    private void checkIn(Entry entry, boolean reusable) {
+        lock.lock();
+        try {
+            checkedOut.remove(entry);
+            entry.inUse = false;
+            if (reusable && !entry.evicted) {
+                return;
+            }
+            entries.values().remove(entry);
+        } finally {
+            lock.unlock();
+        }
+        entry.closePhysically();
+    }
+
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private final class Entry {
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private final int maxFieldSize;
+        private Handle handle;
+        private boolean inUse;
+        private boolean evicted;
+
+        Entry(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.maxFieldSize = statement.getMaxFieldSize();
+        }
+
+        // callers hold the cache lock
+        PreparedStatement checkOut(Connection connectionHandle) {
+            handle = new Handle(this, connectionHandle);
+            checkedOut.add(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    handle
+            );
+        }
+
+        void restoreSettings() throws SQLException {
+            // row limit first: some drivers reject a fetch size above the current max rows
+            statement.setMaxRows(maxRows);
+            statement.setFetchSize(fetchSize);
+            statement.setQueryTimeout(queryTimeout);
+            statement.setMaxFieldSize(maxFieldSize);
+        }
+
+        void closePhysically() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // the statement is being dropped anyway
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection connectionHandle;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean settingsChanged;
+        private boolean reusable = true;
+
+        Handle(Entry entry, Connection connectionHandle) {
+            this.entry = entry;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    if (closed.get()) {
+                        return true;
+                    }
+                    break;
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if (method.getDeclaringClass() == Statement.class && method.getName().startsWith("set")) {
+                if (RESTORED_SETTERS.contains(method.getName())) {
+                    settingsChanged = true;
+                } else {
+                    reusable = false;
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet rs) {
+                openResults.add(rs);
+            }
+            return result;
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                checkIn(entry, reset());
+            }
+        }
+
+        private boolean reset() {
+            try {
+                for (ResultSet rs : openResults) {
+                    rs.close();
+                }
+                openResults.clear();
+                entry.statement.clearParameters();
+                entry.statement.clearBatch();
+                entry.statement.clearWarnings();
+                if (settingsChanged) {
+                    entry.restoreSettings();
+                }
+                return reusable;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Indexes for the predicates and sort orders used by the repositories.
+
+-- getOrdersByStatus: status = ? ORDER BY order_date
+CREATE INDEX idx_orders_status_date ON orders (status, order_date);
+
+-- getOrdersByUserId
+CREATE INDEX idx_orders_user ON orders (user_id);
+
+-- getDeliveriesByDelivererId: deliverer_id = ? ORDER BY order_date
+CREATE INDEX idx_orders_deliverer_date ON orders (deliverer_id, order_date);
+
+-- date range reports and keyset pagination on (order_date, id)
+CREATE INDEX idx_orders_date ON orders (order_date);
+
+-- order graph loading and per-product statistics
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
+
+-- getProductsByRestaurantId
+CREATE INDEX idx_products_restaurant ON products (restaurant_id);
@@ -0,0 +1,38 @@
+-- Per day, per restaurant sales rollup maintained by OrderRepository when orders are created or
+-- change status. Revenue uses item prices at the time the order was placed.
+
+CREATE TABLE IF NOT EXISTS daily_sales (
+    sales_date DATE NOT NULL,
+    restaurant_id INT NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    item_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    delivered_count INT NOT NULL DEFAULT 0,
+    delivered_revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, restaurant_id)
+);
+
+-- Backfill from existing orders. Days already present are skipped, so re-running the script after
+-- a failure part way through does not count any order twice.
+INSERT INTO daily_sales (sales_date, restaurant_id, order_count, item_count, revenue, delivered_count, delivered_revenue)
+SELECT s.sales_date, s.restaurant_id, s.order_count, s.item_count, s.revenue, s.delivered_count, s.delivered_revenue
+FROM (
+    SELECT CAST(o.order_date AS DATE) AS sales_date,
+           o.restaurant_id,
+           COUNT(*) AS order_count,
+           COALESCE(SUM(t.item_count), 0) AS item_count,
+           COALESCE(SUM(t.total), 0) AS revenue,
+           SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END) AS delivered_count,
+           COALESCE(SUM(CASE WHEN o.status = 'DELIVERED' THEN t.total ELSE 0 END), 0) AS delivered_revenue
+    FROM orders o
+    LEFT JOIN (
+        SELECT oi.order_id, COUNT(*) AS item_count, SUM(p.price * oi.quantity) AS total
+        FROM order_items oi
+        LEFT JOIN products p ON oi.product_id = p.id
+        GROUP BY oi.order_id
+    ) t ON t.order_id = o.id
+    GROUP BY CAST(o.order_date AS DATE), o.restaurant_id
+) s
+WHERE NOT EXISTS (
+    SELECT 1 FROM daily_sales ds WHERE ds.sales_date = s.sales_date AND ds.restaurant_id = s.restaurant_id
+);
@@ -0,0 +1,45 @@
+-- Earnings ledger: one row per delivered order, written when the order is marked DELIVERED.
+-- deliverer_balances keeps the running total so "My Earnings" is a primary key lookup.
+
+CREATE TABLE IF NOT EXISTS deliverer_earnings (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    deliverer_id INT NOT NULL,
+    order_id INT NOT NULL UNIQUE,
+    order_total DECIMAL(10, 2) NOT NULL,
+    commission_rate DECIMAL(5, 4) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    earned_at DATETIME NOT NULL
+);
+
+-- Period queries: deliverer_id = ? AND earned_at in [from, to), covering SUM(amount).
+CREATE INDEX idx_deliverer_earnings_period ON deliverer_earnings (deliverer_id, earned_at, amount);
+
+CREATE TABLE IF NOT EXISTS deliverer_balances (
+    deliverer_id INT PRIMARY KEY,
+    delivery_count INT NOT NULL DEFAULT 0,
+    total_earnings DECIMAL(12, 2) NOT NULL DEFAULT 0
+);
+
+-- Backfill delivered orders with the historical 10% commission. The delivery time was never
+-- recorded, so the order date stands in for it. Both inserts skip rows that already exist, so the
+-- script can be re-run after a failure part way through.
+INSERT INTO deliverer_earnings (deliverer_id, order_id, order_total, commission_rate, amount, earned_at)
+SELECT o.deliverer_id, o.id, COALESCE(t.total, 0), 0.1, ROUND(COALESCE(t.total, 0) * 0.1, 2), o.order_date
+FROM orders o
+LEFT JOIN (
+    SELECT oi.order_id, SUM(p.price * oi.quantity) AS total
+    FROM order_items oi
+    JOIN products p ON oi.product_id = p.id
+    GROUP BY oi.order_id
+) t ON t.order_id = o.id
+WHERE o.status = 'DELIVERED' AND o.deliverer_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM deliverer_earnings de WHERE de.order_id = o.id);
+
+INSERT INTO deliverer_balances (deliverer_id, delivery_count, total_earnings)
+SELECT e.deliverer_id, e.delivery_count, e.total_earnings
+FROM (
+    SELECT deliverer_id, COUNT(*) AS delivery_count, SUM(amount) AS total_earnings
+    FROM deliverer_earnings
+    GROUP BY deliverer_id
+) e
+WHERE NOT EXISTS (SELECT 1 FROM deliverer_balances b WHERE b.deliverer_id = e.deliverer_id);
@@ -0,0 +1,12 @@
+-- Snapshot prices at order time: order_items.unit_price and orders.total.
+-- Existing rows are backfilled from current product prices, the best information available.
+
+ALTER TABLE order_items ADD COLUMN unit_price DECIMAL(10, 2) NOT NULL DEFAULT 0;
+
+ALTER TABLE orders ADD COLUMN total DECIMAL(10, 2) NOT NULL DEFAULT 0;
+
+UPDATE order_items
+SET unit_price = COALESCE((SELECT p.price FROM products p WHERE p.id = order_items.product_id), 0);
+
+UPDATE orders
+SET total = COALESCE((SELECT SUM(oi.unit_price * oi.quantity) FROM order_items oi WHERE oi.order_id = orders.id), 0);
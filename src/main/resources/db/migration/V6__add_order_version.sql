@@ -0,0 +1,4 @@
+-- Row version for optimistic claiming: every status change bumps it, so a claim made against a
+-- stale read of the order matches no rows instead of overwriting someone else's claim.
+
+ALTER TABLE orders ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,36 @@
+package org.example.fooddelivery;
+
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.example.fooddelivery.util.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The in-memory H2 database the surefire configuration points {@code db.url} at.
+ */
+public final class TestDatabase {
+    private TestDatabase() {
+    }
+
+    /**
+     * Drops everything, starts a fresh pool (picking up any pool settings the test changed) and
+     * applies every migration.
+     */
+    public static void reset() {
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        dbConnection.closeConnection();
+        execute("DROP ALL OBJECTS");
+        new SchemaMigrator(dbConnection).migrate();
+    }
+
+    public static void execute(String sql) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(sql, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.fooddelivery.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchQueueTest {
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private final DispatchQueue queue = new DispatchQueue(DispatchPriority.AGE, Map.of());
+
+    @Test
+    void offersTheOldestOrdersFirst() {
+        queue.add(pending(2, NOON.plusMinutes(5), 0));
+        queue.add(pending(1, NOON, 0));
+        queue.add(pending(3, NOON.plusMinutes(10), 0));
+
+        assertEquals(List.of(1, 2), ids(queue.peek(2)));
+    }
+
+    @Test
+    void addingAnOrderAgainReplacesItsEntry() {
+        queue.add(pending(1, NOON, 0));
+        queue.add(pending(1, NOON, 3));
+
+        assertEquals(1, queue.size());
+        assertEquals(3, queue.peek(1).get(0).version());
+    }
+
+    @Test
+    void resyncAddsMissingOrdersAndDropsOnesNoLongerPending() {
+        queue.add(pending(1, NOON, 0));
+        queue.add(pending(2, NOON.plusMinutes(1), 0));
+
+        long readStarted = System.nanoTime();
+        queue.resync(List.of(pending(2, NOON.plusMinutes(1), 1), pending(3, NOON.plusMinutes(2), 0)), readStarted);
+
+        assertEquals(List.of(2, 3), ids(queue.peek(10)));
+        assertEquals(1, queue.peek(1).get(0).version());
+    }
+
+    @Test
+    void resyncKeepsOrdersQueuedAfterTheReadStarted() {
+        long readStarted = System.nanoTime();
+        queue.add(pending(4, NOON, 0));
+
+        queue.resync(List.of(), readStarted);
+
+        assertEquals(List.of(4), ids(queue.peek(10)));
+    }
+
+    private static PendingOrder pending(int orderId, LocalDateTime orderDate, int version) {
+        return new PendingOrder(orderId, 1, "Luigi's", 1, new BigDecimal("12.50"), orderDate, version);
+    }
+
+    private static List<Integer> ids(List<PendingOrder> orders) {
+        return orders.stream().map(PendingOrder::orderId).toList();
+    }
+}
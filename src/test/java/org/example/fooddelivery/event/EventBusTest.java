@@ -0,0 +1,78 @@
+package org.example.fooddelivery.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    private final EventBus eventBus = new EventBus(1);
+
+    @AfterEach
+    void shutdown() {
+        eventBus.shutdown();
+    }
+
+    @Test
+    void resyncsOnceTheQueueDrainsAfterADrop() throws InterruptedException {
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch resynced = new CountDownLatch(1);
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        AtomicInteger handledBeforeResync = new AtomicInteger(-1);
+        eventBus.subscribe("test", OrderStatusChangedEvent.class, event -> {
+            handling.countDown();
+            await(release);
+            seen.add(event.orderId());
+        }, () -> {
+            handledBeforeResync.set(seen.size());
+            resynced.countDown();
+        });
+
+        eventBus.publish(changed(1));
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+        eventBus.publish(changed(2));
+        eventBus.publish(changed(3));
+        release.countDown();
+
+        assertTrue(resynced.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), seen);
+        assertEquals(2, handledBeforeResync.get());
+        assertEquals(1, eventBus.getStats().get(0).dropped());
+    }
+
+    @Test
+    void doesNotResyncWithoutDrops() throws InterruptedException {
+        Semaphore delivered = new Semaphore(0);
+        AtomicInteger resyncs = new AtomicInteger();
+        eventBus.subscribe("test", OrderStatusChangedEvent.class, event -> delivered.release(),
+                resyncs::incrementAndGet);
+
+        for (int orderId = 1; orderId <= 3; orderId++) {
+            eventBus.publish(changed(orderId));
+            assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS));
+        }
+        eventBus.shutdown();
+
+        assertEquals(0, resyncs.get());
+    }
+
+    private static OrderStatusChangedEvent changed(int orderId) {
+        return new OrderStatusChangedEvent(orderId, "PENDING", "DELIVERED", 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.fooddelivery.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionScopeTest {
+    private static final String BUDGET_KEY = "actions.roundTripBudget";
+    private static final String FAIL_KEY = "actions.roundTripBudget.fail";
+    private static final String BY_ID = "SELECT * FROM orders WHERE id = ?";
+    private static final String ITEMS = "SELECT * FROM order_items WHERE order_id = ?";
+
+    private String previousFail;
+
+    @BeforeEach
+    void rememberFailMode() {
+        previousFail = System.getProperty(FAIL_KEY);
+    }
+
+    @AfterEach
+    void restoreBudget() {
+        System.clearProperty(BUDGET_KEY);
+        if (previousFail != null) {
+            System.setProperty(FAIL_KEY, previousFail);
+        } else {
+            System.clearProperty(FAIL_KEY);
+        }
+    }
+
+    @Test
+    void countsRoundTripsAndRepeatedShapes() {
+        try (ActionScope scope = ActionScope.open("orders")) {
+            ActionScope.recordRoundTrip(BY_ID);
+            for (int i = 0; i < 3; i++) {
+                ActionScope.recordRoundTrip(ITEMS);
+            }
+            ActionScope.recordRoundTrip(BY_ID);
+            ActionScope.recordRoundTrip("SELECT * FROM users WHERE id = ?");
+
+            assertEquals("orders", scope.getAction());
+            assertEquals(6, scope.getRoundTrips());
+            assertEquals(List.of(Map.entry(ITEMS, 3), Map.entry(BY_ID, 2)), scope.getRepeatedShapes());
+        }
+    }
+
+    @Test
+    void roundTripsOutsideAScopeAreNotCounted() {
+        ActionScope.recordRoundTrip(BY_ID);
+
+        try (ActionScope scope = ActionScope.open("orders")) {
+            assertEquals(0, scope.getRoundTrips());
+        }
+    }
+
+    @Test
+    void nestedScopesCountOnlyTheirOwnRoundTrips() {
+        try (ActionScope outer = ActionScope.open("outer")) {
+            ActionScope.recordRoundTrip(BY_ID);
+            try (ActionScope inner = ActionScope.open("inner")) {
+                ActionScope.recordRoundTrip(ITEMS);
+                ActionScope.recordRoundTrip(ITEMS);
+                assertEquals(2, inner.getRoundTrips());
+            }
+            ActionScope.recordRoundTrip(BY_ID);
+
+            assertEquals(2, outer.getRoundTrips());
+            assertEquals(List.of(Map.entry(BY_ID, 2)), outer.getRepeatedShapes());
+        }
+    }
+
+    @Test
+    void propagatedTasksCountAgainstTheCallersScope() {
+        try (ActionScope scope = ActionScope.open("orders")) {
+            Supplier<Integer> task = ActionScope.propagate(() -> {
+                ActionScope.recordRoundTrip(ITEMS);
+                return 1;
+            });
+            assertEquals(1, CompletableFuture.supplyAsync(task).join());
+            assertEquals(1, task.get());
+            assertEquals(2, scope.getRoundTrips());
+        }
+
+        Supplier<Integer> unscoped = () -> 1;
+        assertSame(unscoped, ActionScope.propagate(unscoped));
+    }
+
+    @Test
+    void closingOverBudgetThrowsInFailMode() {
+        System.setProperty(BUDGET_KEY, "2");
+        System.setProperty(FAIL_KEY, "true");
+        ActionScope scope = ActionScope.open("orders");
+        for (int i = 0; i < 3; i++) {
+            ActionScope.recordRoundTrip(ITEMS);
+        }
+
+        RoundTripBudgetExceededException e = assertThrows(RoundTripBudgetExceededException.class, scope::close);
+        assertEquals("orders", e.getAction());
+        assertEquals(3, e.getRoundTrips());
+        assertEquals(2, e.getBudget());
+        assertTrue(e.getMessage().contains("3x " + ITEMS), e.getMessage());
+        scope.close();
+
+        try (ActionScope next = ActionScope.open("next")) {
+            ActionScope.recordRoundTrip(BY_ID);
+            assertEquals(1, next.getRoundTrips(), "the failed scope was still removed from the thread");
+        }
+    }
+
+    @Test
+    void anExceptionFromTheBodySuppressesTheBudgetFailure() {
+        System.setProperty(BUDGET_KEY, "1");
+        System.setProperty(FAIL_KEY, "true");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            try (ActionScope scope = ActionScope.open("orders")) {
+                ActionScope.recordRoundTrip(ITEMS);
+                ActionScope.recordRoundTrip(ITEMS);
+                assertEquals(2, scope.getRoundTrips());
+                throw new IllegalStateException("body failed");
+            }
+        });
+        assertEquals(1, e.getSuppressed().length);
+        assertInstanceOf(RoundTripBudgetExceededException.class, e.getSuppressed()[0]);
+    }
+
+    @Test
+    void closingOverBudgetOnlyWarnsOutsideFailMode() {
+        System.setProperty(BUDGET_KEY, "2");
+        System.setProperty(FAIL_KEY, "false");
+        try (ActionScope scope = ActionScope.open("orders")) {
+            for (int i = 0; i < 3; i++) {
+                ActionScope.recordRoundTrip(ITEMS);
+            }
+            assertEquals(3, scope.getRoundTrips());
+        }
+    }
+}
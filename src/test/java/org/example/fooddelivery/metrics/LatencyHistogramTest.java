@@ -0,0 +1,65 @@
+package org.example.fooddelivery.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void emptyHistogramReportsZeros() {
+        assertEquals(new LatencySnapshot(0, 0, 0, 0, 0, 0, 0), new LatencyHistogram().snapshot());
+    }
+
+    @Test
+    void bucketsCoverEveryValueWithinOneSixteenth() {
+        int previous = -1;
+        for (long micros = 0; micros < 5_000_000; micros += 1 + micros / 100) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(bucket >= previous, "buckets go down at " + micros);
+            assertTrue(upper >= micros, "bucket for " + micros + " ends at " + upper);
+            assertTrue(upper <= micros + micros / 16, "bucket for " + micros + " ends at " + upper);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void percentilesAreWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500.5, snapshot.meanMillis(), 0.001);
+        assertEquals(500, snapshot.p50Millis(), 500 / 16.0);
+        assertEquals(950, snapshot.p95Millis(), 950 / 16.0);
+        assertEquals(990, snapshot.p99Millis(), 990 / 16.0);
+        assertEquals(1000, snapshot.maxMillis());
+        assertTrue(snapshot.p999Millis() <= snapshot.maxMillis());
+    }
+
+    @Test
+    void countsEveryRecordFromConcurrentThreads() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(40_000, histogram.snapshot().count());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.fooddelivery.metrics;
+
+import org.example.fooddelivery.model.OrderCursor;
+import org.example.fooddelivery.model.OrderPage;
+import org.example.fooddelivery.model.OrderSummaryPage;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryMetricsTest {
+
+    interface EarningsProbe {
+        BigDecimal calculateDelivererEarnings(int delivererId);
+
+        BigDecimal calculateDelivererEarnings(int delivererId, LocalDateTime from, LocalDateTime to);
+
+        List<String> findAll();
+    }
+
+    interface NestingProbe {
+        boolean outer(boolean failAfterInner);
+
+        boolean inner();
+
+        boolean throwing();
+    }
+
+    @Test
+    void rowsCountEntriesNotFlagsOrCounts() {
+        assertEquals(3, RepositoryMetrics.rowsOf(List.of(1, 2, 3)));
+        assertEquals(0, RepositoryMetrics.rowsOf(List.of()));
+        assertEquals(1, RepositoryMetrics.rowsOf(Optional.of("alice")));
+        assertEquals(0, RepositoryMetrics.rowsOf(Optional.empty()));
+        assertEquals(2, RepositoryMetrics.rowsOf(new OrderPage(Collections.nCopies(2, null), null)));
+        assertEquals(1, RepositoryMetrics.rowsOf(new OrderSummaryPage(Collections.nCopies(1, null),
+                new OrderCursor(LocalDateTime.now(), 1))));
+        assertEquals(0, RepositoryMetrics.rowsOf(Stream.of(1, 2, 3)));
+        assertEquals(0, RepositoryMetrics.rowsOf(Boolean.TRUE));
+        assertEquals(0, RepositoryMetrics.rowsOf(42));
+        assertEquals(0, RepositoryMetrics.rowsOf(null));
+        assertEquals(1, RepositoryMetrics.rowsOf("an entity"));
+    }
+
+    @Test
+    void overloadsAreNamedByParameterCount() {
+        EarningsProbe probe = RepositoryMetrics.instrument(EarningsProbe.class, new EarningsProbe() {
+            public BigDecimal calculateDelivererEarnings(int delivererId) {
+                return BigDecimal.ONE;
+            }
+
+            public BigDecimal calculateDelivererEarnings(int delivererId, LocalDateTime from, LocalDateTime to) {
+                return BigDecimal.TEN;
+            }
+
+            public List<String> findAll() {
+                return List.of("a", "b");
+            }
+        });
+
+        assertEquals(BigDecimal.ONE, probe.calculateDelivererEarnings(1));
+        assertEquals(BigDecimal.TEN, probe.calculateDelivererEarnings(1, null, null));
+        assertEquals(BigDecimal.TEN, probe.calculateDelivererEarnings(1, null, null));
+        probe.findAll();
+
+        assertEquals(1, stats("EarningsProbe.calculateDelivererEarnings/1").calls());
+        assertEquals(2, stats("EarningsProbe.calculateDelivererEarnings/3").calls());
+        RepositoryCallStats findAll = stats("EarningsProbe.findAll");
+        assertEquals(1, findAll.calls());
+        assertEquals(2, findAll.rows());
+        assertEquals(1, findAll.latency().count());
+    }
+
+    @Test
+    void errorsCountAgainstTheCallThatReportedThem() {
+        NestingProbe[] self = new NestingProbe[1];
+        self[0] = RepositoryMetrics.instrument(NestingProbe.class, new NestingProbe() {
+            public boolean outer(boolean failAfterInner) {
+                self[0].inner();
+                if (failAfterInner) {
+                    RepositoryMetrics.recordError(new SQLException("outer failed"));
+                }
+                return true;
+            }
+
+            public boolean inner() {
+                RepositoryMetrics.recordError(new SQLException("inner failed"));
+                return false;
+            }
+
+            public boolean throwing() {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        self[0].outer(false);
+        assertEquals(0, stats("NestingProbe.outer").errors(), "the inner call's error leaked into the outer call");
+        assertEquals(1, stats("NestingProbe.inner").errors());
+
+        self[0].outer(true);
+        assertEquals(1, stats("NestingProbe.outer").errors(), "the outer call was not restored after the inner call");
+        assertEquals(2, stats("NestingProbe.inner").errors());
+        assertEquals(2, stats("NestingProbe.outer").calls());
+
+        assertThrows(IllegalStateException.class, () -> self[0].throwing());
+        assertEquals(1, stats("NestingProbe.throwing").errors());
+
+        RepositoryMetrics.recordError(new SQLException("outside any call"));
+        assertEquals(1, stats("NestingProbe.outer").errors());
+    }
+
+    private static RepositoryCallStats stats(String name) {
+        return RepositoryMetrics.getStats().stream()
+                .filter(stats -> stats.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no stats for " + name));
+    }
+}
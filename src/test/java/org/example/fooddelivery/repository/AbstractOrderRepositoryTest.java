@@ -0,0 +1,428 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.metrics.ActionScope;
+import org.example.fooddelivery.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour both order repository backends must share. Subclasses provide a fresh, empty backend
+ * per test.
+ */
+abstract class AbstractOrderRepositoryTest {
+    protected static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    private static final String BUDGET_KEY = "actions.roundTripBudget";
+
+    protected UserRepository users;
+    protected RestaurantRepository restaurants;
+    protected ProductRepository products;
+    protected OrderRepository orders;
+
+    protected User customer;
+    protected User deliverer;
+    protected User otherDeliverer;
+    protected Restaurant restaurant;
+    protected Product pizza;
+
+    protected abstract void createBackend();
+
+    @BeforeEach
+    void seedCatalog() {
+        createBackend();
+        customer = register("alice", User.UserRole.CLIENT);
+        deliverer = register("bob", User.UserRole.DELIVERER);
+        otherDeliverer = register("carol", User.UserRole.DELIVERER);
+        restaurant = new Restaurant(0, "Luigi's", "Main St 1", "555-0100");
+        assertTrue(restaurants.createRestaurant(restaurant));
+        pizza = new Product(0, "Pizza", new BigDecimal("12.50"), "Margherita", restaurant);
+        assertTrue(products.createProduct(pizza));
+    }
+
+    @Test
+    void salesReportsCountOrdersAndFollowDeliveries() {
+        Order first = placeOrder(DAY.atTime(12, 0), 1);
+        placeOrder(DAY.atTime(13, 0), 2);
+        placeOrder(DAY.plusDays(1).atTime(12, 0), 1);
+
+        assertTrue(orders.updateOrderStatus(first.getId(), "DELIVERED", deliverer.getId()));
+
+        List<SalesReportRow> byDay = orders.getSalesByDay(DAY, DAY.plusDays(2));
+        assertEquals(2, byDay.size());
+        SalesReportRow firstDay = byDay.get(0);
+        assertEquals(2, firstDay.orderCount());
+        assertEquals(2, firstDay.itemCount());
+        assertAmount("37.50", firstDay.revenue());
+        assertEquals(1, firstDay.deliveredCount());
+        assertAmount("12.50", firstDay.deliveredRevenue());
+
+        List<SalesReportRow> byRestaurant = orders.getSalesByRestaurant(DAY, DAY.plusDays(2));
+        assertEquals(1, byRestaurant.size());
+        assertEquals("Luigi's", byRestaurant.get(0).label());
+        assertEquals(3, byRestaurant.get(0).orderCount());
+        assertAmount("50.00", byRestaurant.get(0).revenue());
+
+        assertTrue(orders.getSalesByDay(DAY.plusDays(2), DAY.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    void undoingADeliveryTakesItOutOfTheSalesReport() {
+        Order order = placeOrder(DAY.atTime(12, 0), 2);
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+        assertTrue(orders.updateOrderStatus(order.getId(), "PENDING", deliverer.getId()));
+
+        SalesReportRow day = orders.getSalesByDay(DAY, DAY.plusDays(1)).get(0);
+        assertEquals(1, day.orderCount());
+        assertEquals(0, day.deliveredCount());
+        assertAmount("0", day.deliveredRevenue());
+    }
+
+    @Test
+    void deliveringAnOrderCreditsTheDelivererOnce() {
+        Order order = placeOrder(DAY.atTime(12, 0), 4);
+
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+
+        assertAmount("5.00", orders.calculateDelivererEarnings(deliverer.getId()));
+        assertAmount("5.00", orders.calculateDelivererEarnings(deliverer.getId(),
+                LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusMinutes(1)));
+        assertAmount("0", orders.calculateDelivererEarnings(deliverer.getId(),
+                LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2)));
+    }
+
+    @Test
+    void reassigningADeliveredOrderMovesTheEarning() {
+        Order order = placeOrder(DAY.atTime(12, 0), 4);
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", otherDeliverer.getId()));
+
+        assertAmount("0", orders.calculateDelivererEarnings(deliverer.getId()));
+        assertAmount("5.00", orders.calculateDelivererEarnings(otherDeliverer.getId()));
+        SalesReportRow day = orders.getSalesByDay(DAY, DAY.plusDays(1)).get(0);
+        assertEquals(1, day.deliveredCount());
+    }
+
+    @Test
+    void undoingADeliveryReversesTheEarning() {
+        Order order = placeOrder(DAY.atTime(12, 0), 4);
+        assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+        assertTrue(orders.updateOrderStatus(order.getId(), "PENDING", deliverer.getId()));
+
+        assertAmount("0", orders.calculateDelivererEarnings(deliverer.getId()));
+    }
+
+    @Test
+    void itemsArePricedAtTheStoredProductPrice() {
+        Product stale = new Product(pizza.getId(), pizza.getName(), pizza.getPrice(), pizza.getDescription(), restaurant);
+        pizza.setPrice(new BigDecimal("15.00"));
+        assertTrue(products.updateProduct(pizza));
+
+        Order order = newOrder(DAY.atTime(12, 0), 2);
+        order.getOrderItems().get(0).setProduct(stale);
+        assertTrue(orders.createOrder(order));
+
+        assertAmount("15.00", order.getOrderItems().get(0).getUnitPrice());
+        assertAmount("30.00", order.getTotal());
+        assertAmount("30.00", orders.getOrdersByUserId(customer.getId()).get(0).getTotal());
+    }
+
+    @Test
+    void ordersForADeletedProductAreRejected() {
+        Order stored = newOrder(DAY.atTime(12, 0), 1);
+        Order orphaned = newOrder(DAY.atTime(13, 0), 1);
+        Product deleted = new Product(0, "Calzone", new BigDecimal("9.00"), "Folded", restaurant);
+        assertTrue(products.createProduct(deleted));
+        orphaned.getOrderItems().get(0).setProduct(deleted);
+        assertTrue(products.deleteProduct(deleted.getId()));
+
+        assertEquals(0, orders.createOrders(List.of(orphaned, stored)));
+        assertTrue(orders.getOrdersByUserId(customer.getId()).isEmpty());
+        assertEquals(1, orders.createOrders(List.of(stored)));
+    }
+
+    @Test
+    void onlyOneOfSeveralConcurrentClaimsWins() throws Exception {
+        Order order = placeOrder(DAY.atTime(12, 0), 1);
+        int version = orders.getPendingOrder(order.getId()).orElseThrow().version();
+
+        List<Boolean> results = runConcurrently(8, claimer -> orders.claimOrder(order.getId(), version,
+                claimer % 2 == 0 ? deliverer.getId() : otherDeliverer.getId()));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertTrue(orders.getPendingOrder(order.getId()).isEmpty());
+        assertFalse(orders.claimOrder(order.getId(), version, deliverer.getId()));
+        assertEquals(1, orders.getOrdersByStatus("DELIVERED").size());
+    }
+
+    @Test
+    void concurrentClaimNextOrdersNeverHandOutAnOrderTwice() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            placeOrder(DAY.atTime(12, i), 1);
+        }
+
+        List<List<Integer>> claimed = runConcurrently(4, claimer -> orders.claimNextOrders(
+                claimer % 2 == 0 ? deliverer.getId() : otherDeliverer.getId(), 3));
+
+        Set<Integer> distinct = new HashSet<>();
+        int total = 0;
+        for (List<Integer> ids : claimed) {
+            distinct.addAll(ids);
+            total += ids.size();
+        }
+        assertEquals(total, distinct.size());
+        assertEquals(10 - total, orders.getPendingOrders().size());
+        assertEquals(total, orders.getDeliveriesByDelivererId(deliverer.getId()).size()
+                + orders.getDeliveriesByDelivererId(otherDeliverer.getId()).size());
+    }
+
+    @Test
+    void ordersPagesWalkTiesOnOrderDateAndStopAtTheLastOrder() {
+        Order oldest = placeOrder(DAY.atTime(12, 0), 1);
+        Order tiedFirst = placeOrder(DAY.atTime(13, 0), 1);
+        Order tiedSecond = placeOrder(DAY.atTime(13, 0), 1);
+        Order tiedThird = placeOrder(DAY.atTime(13, 0), 1);
+        Order newest = placeOrder(DAY.atTime(14, 0), 1);
+
+        OrderPage first = orders.getOrdersPage(null, 2);
+        assertEquals(List.of(newest.getId(), tiedThird.getId()), ids(first.orders()));
+        assertTrue(first.hasMore());
+        OrderPage second = orders.getOrdersPage(first.nextCursor(), 2);
+        assertEquals(List.of(tiedSecond.getId(), tiedFirst.getId()), ids(second.orders()));
+        OrderPage last = orders.getOrdersPage(second.nextCursor(), 2);
+        assertEquals(List.of(oldest.getId()), ids(last.orders()));
+        assertNull(last.nextCursor());
+
+        OrderPage everything = orders.getOrdersPage(null, 5);
+        assertEquals(5, everything.orders().size());
+        assertNull(everything.nextCursor(), "a page that ends on the last order has no next page");
+        OrderPage exactTail = orders.getOrdersPage(OrderCursor.after(tiedSecond), 2);
+        assertEquals(List.of(tiedFirst.getId(), oldest.getId()), ids(exactTail.orders()));
+        assertNull(exactTail.nextCursor());
+        assertTrue(orders.getOrdersPage(OrderCursor.after(oldest), 2).orders().isEmpty());
+    }
+
+    @Test
+    void dayAndMonthQueriesIncludeTheirLastMomentButNotTheNextDay() {
+        LocalDateTime lastMoment = LocalDate.of(2024, 3, 31).atTime(23, 59, 59, 999_000_000);
+        Order lastOfMonth = placeOrder(lastMoment, 1);
+        Order firstOfNext = placeOrder(LocalDate.of(2024, 4, 1).atStartOfDay(), 1);
+        Order firstOfMonth = placeOrder(LocalDate.of(2024, 3, 1).atStartOfDay(), 1);
+
+        assertEquals(List.of(lastOfMonth.getId()), ids(orders.getOrdersByDate(LocalDate.of(2024, 3, 31))));
+        assertEquals(List.of(firstOfNext.getId()), ids(orders.getOrdersByDate(LocalDate.of(2024, 4, 1))));
+        assertEquals(List.of(lastOfMonth.getId(), firstOfMonth.getId()),
+                ids(orders.getOrdersByMonth(LocalDate.of(2024, 3, 15))));
+        assertEquals(List.of(firstOfNext.getId()), ids(orders.getOrdersByMonth(LocalDate.of(2024, 4, 30))));
+        assertTrue(orders.getOrdersByMonth(LocalDate.of(2024, 2, 29)).isEmpty());
+    }
+
+    @Test
+    void popularProductSalesCountLinesInTheWindowAndRevenueOnlyWhenDelivered() {
+        Product pasta = new Product(0, "Pasta", new BigDecimal("9.00"), "Carbonara", restaurant);
+        assertTrue(products.createProduct(pasta));
+        Product salad = new Product(0, "Salad", new BigDecimal("6.00"), "Green", restaurant);
+        assertTrue(products.createProduct(salad));
+        Restaurant other = new Restaurant(0, "Sushi Bar", "Side St 2", "555-0200");
+        assertTrue(restaurants.createRestaurant(other));
+        Product sushi = new Product(0, "Sushi", new BigDecimal("20.00"), "Nigiri", other);
+        assertTrue(products.createProduct(sushi));
+
+        Order delivered = placeOrder(DAY.atStartOfDay(), 2);
+        assertTrue(orders.updateOrderStatus(delivered.getId(), "DELIVERED", deliverer.getId()));
+        placeOrder(DAY.atTime(23, 59), 1);
+        placeOrder(DAY.plusDays(1).atStartOfDay(), 5);
+        Order pastaOrder = newOrder(DAY.atTime(12, 0), 1);
+        pastaOrder.getOrderItems().get(0).setProduct(pasta);
+        assertTrue(orders.createOrder(pastaOrder));
+        Order sushiOrder = new Order(0, customer, other, new ArrayList<>(List.of(new OrderItem(0, 0, sushi, 1))),
+                DAY.atTime(12, 0), "PENDING");
+        assertTrue(orders.createOrder(sushiOrder));
+
+        List<ProductSales> day = products.getPopularProductSales(10, DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay(), restaurant.getId());
+        assertEquals(List.of(pizza.getId(), pasta.getId(), salad.getId()), productIds(day));
+        assertEquals(List.of(2, 1, 0), day.stream().map(ProductSales::orderCount).toList());
+        assertAmount("25.00", day.get(0).deliveredRevenue());
+        assertAmount("0", day.get(1).deliveredRevenue());
+        assertAmount("0", day.get(2).deliveredRevenue());
+
+        List<ProductSales> top = products.getPopularProductSales(2, null, null, null);
+        assertEquals(List.of(pizza.getId(), pasta.getId()), productIds(top));
+        assertEquals(3, top.get(0).orderCount());
+
+        List<ProductSales> nextDay = products.getPopularProductSales(1, DAY.plusDays(1).atStartOfDay(), null,
+                other.getId());
+        assertEquals(List.of(sushi.getId()), productIds(nextDay));
+        assertEquals(0, nextDay.get(0).orderCount());
+    }
+
+    @Test
+    void summariesCountOrderLinesAndCarryTheStoredTotal() {
+        Order twoLines = newOrder(DAY.atTime(12, 0), 3);
+        twoLines.getOrderItems().add(new OrderItem(0, 0, pizza, 1));
+        assertTrue(orders.createOrder(twoLines));
+        Order empty = new Order(0, customer, restaurant, new ArrayList<>(), DAY.atTime(13, 0), "PENDING");
+        assertTrue(orders.createOrder(empty));
+        Order delivered = placeOrder(DAY.atTime(14, 0), 2);
+        assertTrue(orders.updateOrderStatus(delivered.getId(), "DELIVERED", deliverer.getId()));
+
+        List<OrderSummary> mine = orders.getOrderSummariesByUserId(customer.getId());
+        assertEquals(List.of(delivered.getId(), empty.getId(), twoLines.getId()), summaryIds(mine));
+        OrderSummary newest = mine.get(0);
+        assertEquals("alice", newest.customerName());
+        assertEquals("Luigi's", newest.restaurantName());
+        assertEquals("DELIVERED", newest.status());
+        assertEquals(DAY.atTime(14, 0), newest.orderDate());
+        assertEquals(1, newest.itemCount());
+        assertAmount("25.00", newest.total());
+        assertEquals(0, mine.get(1).itemCount(), "an order without items still has a summary");
+        assertAmount("0", mine.get(1).total());
+        assertEquals(2, mine.get(2).itemCount(), "lines are counted, not quantities");
+        assertAmount("50.00", mine.get(2).total());
+
+        assertTrue(orders.getOrderSummariesByUserId(deliverer.getId()).isEmpty());
+        assertEquals(List.of(delivered.getId()),
+                summaryIds(orders.getDeliverySummariesByDelivererId(deliverer.getId())));
+        assertTrue(orders.getDeliverySummariesByDelivererId(otherDeliverer.getId()).isEmpty());
+    }
+
+    @Test
+    void summaryPagesWalkTiesOnOrderDateLikeOrderPages() {
+        Order oldest = placeOrder(DAY.atTime(12, 0), 1);
+        Order tiedFirst = placeOrder(DAY.atTime(13, 0), 1);
+        Order tiedEmpty = new Order(0, customer, restaurant, new ArrayList<>(), DAY.atTime(13, 0), "PENDING");
+        assertTrue(orders.createOrder(tiedEmpty));
+        Order newest = placeOrder(DAY.atTime(14, 0), 2);
+
+        OrderSummaryPage first = orders.getOrderSummariesPage(null, 2);
+        assertEquals(List.of(newest.getId(), tiedEmpty.getId()), summaryIds(first.orders()));
+        assertEquals(new OrderCursor(DAY.atTime(13, 0), tiedEmpty.getId()), first.nextCursor());
+        assertEquals(0, first.orders().get(1).itemCount());
+        OrderSummaryPage last = orders.getOrderSummariesPage(first.nextCursor(), 2);
+        assertEquals(List.of(tiedFirst.getId(), oldest.getId()), summaryIds(last.orders()));
+        assertFalse(last.hasMore());
+
+        assertEquals(ids(orders.getOrdersPage(null, 4).orders()),
+                summaryIds(orders.getOrderSummariesPage(null, 4).orders()));
+        assertNull(orders.getOrderSummariesPage(null, 4).nextCursor());
+        assertTrue(orders.getOrderSummariesPage(OrderCursor.after(oldest), 2).orders().isEmpty());
+    }
+
+    @Test
+    void listReadsTakeTheSameRoundTripsForAnyNumberOfOrders() {
+        for (int i = 0; i < 30; i++) {
+            Order order = placeOrder(DAY.atTime(12, 0).plusMinutes(i), 1 + i % 3);
+            if (i % 2 == 0) {
+                assertTrue(orders.updateOrderStatus(order.getId(), "DELIVERED", deliverer.getId()));
+            }
+        }
+
+        assertEquals(30, withinRoundTrips(4, () -> orders.getAllOrders()).size());
+        assertEquals(30, withinRoundTrips(4, () -> orders.getOrdersByUserId(customer.getId())).size());
+        assertEquals(15, withinRoundTrips(4, () -> orders.getOrdersByStatus("DELIVERED")).size());
+        assertEquals(15, withinRoundTrips(4, () -> orders.getDeliveriesByDelivererId(deliverer.getId())).size());
+        assertEquals(30, withinRoundTrips(4, () -> orders.getOrdersByDate(DAY)).size());
+        assertEquals(30, withinRoundTrips(4, () -> orders.getOrdersByMonth(DAY)).size());
+        assertEquals(20, withinRoundTrips(4, () -> orders.getOrdersPage(null, 20)).orders().size());
+        assertEquals(30, withinRoundTrips(1, () -> orders.getOrderSummariesByUserId(customer.getId())).size());
+    }
+
+    private static List<Integer> productIds(List<ProductSales> sales) {
+        return sales.stream().map(sale -> sale.product().getId()).toList();
+    }
+
+    private static List<Integer> summaryIds(List<OrderSummary> summaries) {
+        return summaries.stream().map(OrderSummary::id).toList();
+    }
+
+    protected static List<Integer> ids(List<Order> list) {
+        List<Integer> ids = new ArrayList<>();
+        for (Order order : list) {
+            ids.add(order.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Runs {@code read} in an {@link ActionScope} with a budget of {@code roundTrips}. The build
+     * sets {@code actions.roundTripBudget.fail}, so a read that goes back to the database per row
+     * fails the test instead of only logging a warning.
+     */
+    @SuppressWarnings("try")
+    protected static <T> T withinRoundTrips(int roundTrips, Supplier<T> read) {
+        String previous = System.getProperty(BUDGET_KEY);
+        System.setProperty(BUDGET_KEY, String.valueOf(roundTrips));
+        try (ActionScope ignored = ActionScope.open("test")) {
+            return read.get();
+        } finally {
+            if (previous != null) {
+                System.setProperty(BUDGET_KEY, previous);
+            } else {
+                System.clearProperty(BUDGET_KEY);
+            }
+        }
+    }
+
+    protected Order placeOrder(LocalDateTime date, int quantity) {
+        Order order = newOrder(date, quantity);
+        assertTrue(orders.createOrder(order));
+        return order;
+    }
+
+    protected Order newOrder(LocalDateTime date, int quantity) {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(new OrderItem(0, 0, pizza, quantity));
+        return new Order(0, customer, restaurant, items, date, "PENDING");
+    }
+
+    protected static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    private static <T> List<T> runConcurrently(int threads, IntFunction<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int claimer = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.apply(claimer);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User register(String username, User.UserRole role) {
+        User user = new User(0, username, "secret-" + username, role);
+        assertTrue(users.registerUser(user));
+        return user;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.model.Product;
+import org.example.fooddelivery.model.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    @Test
+    void productCopiesDoNotShareTheirRestaurant() {
+        Restaurant restaurant = new Restaurant(1, "Luigi's", "Main St 1", "555-0100");
+        Product cached = new Product(2, "Pizza", new BigDecimal("12.50"), "Margherita", restaurant);
+
+        Product copy = CatalogCache.copyOf(cached);
+        copy.getRestaurant().setName("Renamed by a caller");
+
+        assertNotSame(restaurant, copy.getRestaurant());
+        assertEquals("Luigi's", cached.getRestaurant().getName());
+        assertEquals("Luigi's", CatalogCache.copyOf(cached).getRestaurant().getName());
+    }
+}
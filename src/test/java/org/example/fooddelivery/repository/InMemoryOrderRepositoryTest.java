@@ -0,0 +1,13 @@
+package org.example.fooddelivery.repository;
+
+class InMemoryOrderRepositoryTest extends AbstractOrderRepositoryTest {
+
+    @Override
+    protected void createBackend() {
+        InMemoryStore store = new InMemoryStore();
+        users = new InMemoryUserRepository(store);
+        restaurants = new InMemoryRestaurantRepository(store);
+        products = new InMemoryProductRepository(store);
+        orders = new InMemoryOrderRepository(store);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.fooddelivery.repository;
+
+import org.example.fooddelivery.TestDatabase;
+import org.example.fooddelivery.model.Order;
+import org.example.fooddelivery.util.DatabaseConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcOrderRepositoryTest extends AbstractOrderRepositoryTest {
+
+    @Override
+    protected void createBackend() {
+        TestDatabase.reset();
+        CatalogCache.invalidateAll();
+        users = new JdbcUserRepository();
+        restaurants = new JdbcRestaurantRepository();
+        products = new JdbcProductRepository();
+        orders = new JdbcOrderRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("db.pool.minSize");
+        System.clearProperty("db.pool.maxSize");
+        System.clearProperty("db.pool.borrowTimeoutMs");
+        System.clearProperty("orders.stream.fetchSize");
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    @Test
+    void aLostClaimRefreshesTheQueueOnItsOwnConnection() {
+        Order order = placeOrder(LocalDateTime.of(2024, 1, 1, 12, 0), 1);
+        int version = orders.getPendingOrder(order.getId()).orElseThrow().version();
+
+        System.setProperty("db.pool.minSize", "1");
+        System.setProperty("db.pool.maxSize", "1");
+        System.setProperty("db.pool.borrowTimeoutMs", "2000");
+        DatabaseConnection.getInstance().closeConnection();
+        JdbcOrderRepository claiming = new JdbcOrderRepository();
+
+        assertTrue(claiming.claimOrder(order.getId(), version, deliverer.getId()));
+        long start = System.nanoTime();
+        assertFalse(claiming.claimOrder(order.getId(), version, otherDeliverer.getId()));
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(tookMillis < 1000, "a lost claim took " + tookMillis + " ms");
+        assertEquals(0, DatabaseConnection.getInstance().getPoolStats().borrowTimeouts());
+        assertEquals(0, DatabaseConnection.getInstance().getPoolStats().activeConnections());
+    }
+
+    @Test
+    void streamsEveryOrderWithItsGraphOnASingleConnection() {
+        List<Order> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            batch.add(newOrder(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i), 1 + i % 3));
+        }
+        assertEquals(7, orders.createOrders(batch));
+
+        System.setProperty("db.pool.minSize", "1");
+        System.setProperty("db.pool.maxSize", "1");
+        System.setProperty("db.pool.borrowTimeoutMs", "1000");
+        System.setProperty("orders.stream.fetchSize", "3");
+        DatabaseConnection.getInstance().closeConnection();
+        JdbcOrderRepository streaming = new JdbcOrderRepository();
+
+        List<Order> streamed;
+        try (Stream<Order> stream = streaming.streamAllOrders()) {
+            streamed = stream.toList();
+        }
+
+        assertEquals(7, streamed.size());
+        assertEquals(batch.get(6).getId(), streamed.get(0).getId());
+        for (Order order : streamed) {
+            assertEquals("alice", order.getUser().getUsername());
+            assertEquals("Luigi's", order.getRestaurant().getName());
+            assertEquals(1, order.getItems().size());
+            assertEquals("Pizza", order.getItems().get(0).getProduct().getName());
+        }
+        assertEquals(0, DatabaseConnection.getInstance().getPoolStats().activeConnections());
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.fooddelivery.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiRequestTest {
+    @Test
+    void decodesQueryParameters() {
+        assertEquals(Map.of("afterDate", "2024-01-31T12:00:00", "size", "20", "flag", ""),
+                ApiRequest.parseQuery("afterDate=2024-01-31T12%3A00%3A00&size=20&flag"));
+        assertEquals(Map.of("name", "Luigi's Pizza"), ApiRequest.parseQuery("name=Luigi%27s+Pizza"));
+        assertTrue(ApiRequest.parseQuery(null).isEmpty());
+    }
+
+    @Test
+    void malformedEscapesAreABadRequest() {
+        ApiException e = assertThrows(ApiException.class, () -> ApiRequest.parseQuery("size=%zz"));
+        assertEquals(400, e.getStatus());
+        assertEquals(400, assertThrows(ApiException.class, () -> ApiRequest.parseQuery("size=10%")).getStatus());
+    }
+}
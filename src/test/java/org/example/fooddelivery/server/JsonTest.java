@@ -0,0 +1,41 @@
+package org.example.fooddelivery.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+    @Test
+    void parsesRequestBodies() {
+        Object parsed = Json.parse("{\"restaurantId\": 1, \"items\": [{\"productId\": 3, \"quantity\": 2}], \"note\": null}");
+
+        Map<?, ?> body = assertInstanceOf(Map.class, parsed);
+        assertEquals(new BigDecimal("1"), body.get("restaurantId"));
+        assertEquals(List.of(Map.of("productId", new BigDecimal("3"), "quantity", new BigDecimal("2"))),
+                body.get("items"));
+        assertTrue(body.containsKey("note"));
+        assertEquals("{\"a\":[1,\"x\\\"y\"]}", Json.write(Map.of("a", List.of(1, "x\"y"))));
+    }
+
+    @Test
+    void rejectsNestingBeyondTheLimit() {
+        String allowed = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertInstanceOf(List.class, Json.parse(allowed));
+
+        String tooDeep = "[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(tooDeep));
+        String hostile = "{\"a\":".repeat(100_000);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(hostile));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1, 2] 3"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{a: 1}"));
+    }
+}
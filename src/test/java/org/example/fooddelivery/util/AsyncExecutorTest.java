@@ -0,0 +1,75 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.metrics.ActionScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncExecutorTest {
+    private final AsyncExecutor executor = new AsyncExecutor(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void runsNoMoreTasksAtOnceThanItsLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int task = i;
+            futures.add(executor.supply(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return task;
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getQueueLength() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(4, executor.getQueueLength());
+        assertEquals(2, running.get());
+        assertEquals(0, executor.getAvailablePermits());
+
+        release.countDown();
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxRunning.get());
+        assertEquals(2, executor.getAvailablePermits());
+    }
+
+    @Test
+    void countsTaskRoundTripsAgainstTheCallersScope() {
+        try (ActionScope scope = ActionScope.open("test")) {
+            executor.supply(() -> {
+                ActionScope.recordRoundTrip("SELECT * FROM orders WHERE id = ?");
+                ActionScope.recordRoundTrip("SELECT * FROM orders WHERE id = ?");
+                return null;
+            }).join();
+            ActionScope.recordRoundTrip("SELECT * FROM users WHERE id = ?");
+
+            assertEquals(3, scope.getRoundTrips());
+            assertEquals(List.of(Map.entry("SELECT * FROM orders WHERE id = ?", 2)), scope.getRepeatedShapes());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+    private static final int MAX_SIZE = 4;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("db.pool.minSize", "2");
+        System.setProperty("db.pool.maxSize", String.valueOf(MAX_SIZE));
+        System.setProperty("db.pool.borrowTimeoutMs", "300");
+        pool = new ConnectionPool(AppConfig.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        System.clearProperty("db.pool.minSize");
+        System.clearProperty("db.pool.maxSize");
+        System.clearProperty("db.pool.borrowTimeoutMs");
+    }
+
+    @Test
+    void fillsToMinimumAndReusesReturnedConnections() throws Exception {
+        assertEquals(2, pool.getStats().totalConnections());
+
+        for (int i = 0; i < 10; i++) {
+            try (Connection conn = pool.borrow()) {
+                assertTrue(conn.isValid(1));
+            }
+        }
+
+        assertEquals(2, pool.getStats().connectionsCreated());
+        assertEquals(0, pool.getStats().activeConnections());
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsInUse() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < MAX_SIZE; i++) {
+            held.add(pool.borrow());
+        }
+
+        long start = System.nanoTime();
+        assertThrows(SQLTimeoutException.class, pool::borrow);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waitedMillis < 600, "waited " + waitedMillis + " ms for a 300 ms timeout");
+        assertEquals(1, pool.getStats().borrowTimeouts());
+
+        held.get(0).close();
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+        for (Connection conn : held) {
+            conn.close();
+        }
+    }
+
+    @Test
+    void closingAHandleTwiceReturnsTheConnectionOnce() throws Exception {
+        Connection conn = pool.borrow();
+        conn.close();
+        conn.close();
+
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < MAX_SIZE; i++) {
+            held.add(pool.borrow());
+        }
+        assertThrows(SQLTimeoutException.class, pool::borrow);
+        for (Connection c : held) {
+            c.close();
+        }
+    }
+
+    @Test
+    void concurrentBorrowersNeverOpenMoreThanMaxSize() throws Exception {
+        AtomicInteger maxSeen = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try (Connection conn = pool.borrow()) {
+                        assertFalse(conn.isClosed());
+                        maxSeen.accumulateAndGet(pool.getStats().totalConnections(), Math::max);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(maxSeen.get() <= MAX_SIZE, "opened " + maxSeen.get() + " connections");
+        assertTrue(pool.getStats().connectionsCreated() <= MAX_SIZE);
+        assertEquals(0, pool.getStats().activeConnections());
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.fooddelivery.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordUtilsTest {
+    private static final String ITERATIONS_KEY = "security.password.iterations";
+
+    @AfterEach
+    void restoreIterations() {
+        System.setProperty(ITERATIONS_KEY, "1000");
+    }
+
+    @Test
+    void verifiesOnlyTheHashedPassword() {
+        String stored = PasswordUtils.hash("secret123");
+
+        assertTrue(PasswordUtils.isHashed(stored));
+        assertTrue(stored.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(PasswordUtils.verify("secret123", stored));
+        assertFalse(PasswordUtils.verify("secret124", stored));
+        assertFalse(PasswordUtils.verify(null, stored));
+    }
+
+    @Test
+    void saltsEveryHash() {
+        assertNotEquals(PasswordUtils.hash("secret123"), PasswordUtils.hash("secret123"));
+    }
+
+    @Test
+    void plainTextAndMalformedValuesNeverVerify() {
+        assertFalse(PasswordUtils.verify("secret123", "secret123"));
+        assertFalse(PasswordUtils.verify("secret123", "pbkdf2-sha256$1000$not-base64"));
+        assertFalse(PasswordUtils.verify("secret123", "pbkdf2-sha256$x$c2FsdA$aGFzaA"));
+    }
+
+    @Test
+    void unknownUsersAreRejected() {
+        assertFalse(PasswordUtils.verify("secret123", null));
+        assertFalse(PasswordUtils.verify("", null));
+    }
+
+    @Test
+    void rehashesPlainTextAndOtherIterationCounts() {
+        String stored = PasswordUtils.hash("secret123");
+        assertFalse(PasswordUtils.needsRehash(stored));
+        assertTrue(PasswordUtils.needsRehash("secret123"));
+
+        System.setProperty(ITERATIONS_KEY, "2000");
+        assertTrue(PasswordUtils.needsRehash(stored));
+        assertTrue(PasswordUtils.verify("secret123", stored));
+        assertFalse(PasswordUtils.verify("secret123", null));
+    }
+
+    @Test
+    void checksPasswordRules() {
+        assertTrue(PasswordUtils.isPasswordValid("secret123"));
+        assertFalse(PasswordUtils.isPasswordValid("secret"));
+        assertFalse(PasswordUtils.isPasswordValid("12345678"));
+        assertFalse(PasswordUtils.isPasswordValid("password"));
+        assertFalse(PasswordUtils.isPasswordValid(null));
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.fooddelivery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTracerTest {
+    @Test
+    void treatsUserRowsAndPasswordColumnsAsSensitive() {
+        assertTrue(QueryTracer.isSensitive("SELECT * FROM users WHERE username = ?"));
+        assertTrue(QueryTracer.isSensitive("UPDATE Users SET role = ? WHERE id = ?"));
+        assertTrue(QueryTracer.isSensitive("UPDATE accounts SET password_hash = ? WHERE id = ?"));
+        assertFalse(QueryTracer.isSensitive("SELECT * FROM orders WHERE user_id = ?"));
+        assertFalse(QueryTracer.isSensitive("SELECT * FROM products WHERE restaurant_id = ?"));
+    }
+
+    @Test
+    void redactsParameterValues() {
+        Map<Integer, Object> parameters = new TreeMap<>(Map.of(1, "alice", 2, "pbkdf2$1000$c2FsdA==$aGFzaA=="));
+
+        assertEquals("[2 redacted]", QueryTracer.describe(parameters, true));
+        assertEquals("[1=alice, 2=pbkdf2$1000$c2FsdA==$aGFzaA==]", QueryTracer.describe(parameters, false));
+    }
+
+    @Test
+    void normalizesLiteralsAndPlaceholderLists() {
+        assertEquals("SELECT * FROM orders WHERE id IN (?...) AND status = ?",
+                QueryTracer.normalize("SELECT *  FROM orders\n WHERE id IN (?, ?, ?) AND status = 'PENDING'"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+    private final DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+    }
+
+    @Test
+    void aMigratedDatabaseHasNothingLeftToApply() {
+        assertEquals(0, new SchemaMigrator(dbConnection).migrate());
+        assertEquals(7, count("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void hashesPlainTextPasswords() {
+        TestDatabase.execute("INSERT INTO users (id, username, password, role) VALUES (1, 'alice', 'secret123', 'CLIENT')");
+        String hashed = PasswordUtils.hash("hunter22");
+        TestDatabase.execute("INSERT INTO users (id, username, password, role) VALUES (2, 'bob', '" + hashed + "', 'CLIENT')");
+
+        TestDatabase.execute("DELETE FROM schema_version WHERE version = 7");
+        assertEquals(1, new SchemaMigrator(dbConnection).migrate());
+
+        String alice = password(1);
+        assertTrue(PasswordUtils.isHashed(alice));
+        assertTrue(PasswordUtils.verify("secret123", alice));
+        assertEquals(hashed, password(2));
+    }
+
+    @Test
+    void backfillsCanBeRunAgainWithoutDuplicatingRows() throws SQLException {
+        TestDatabase.execute("INSERT INTO products (id, name, price, restaurant_id) VALUES (1, 'Pizza', 10.00, 1)");
+        TestDatabase.execute("INSERT INTO orders (id, user_id, restaurant_id, deliverer_id, status, order_date) "
+                + "VALUES (1, 1, 1, 7, 'DELIVERED', '2024-01-01 12:00:00')");
+        TestDatabase.execute("INSERT INTO orders (id, user_id, restaurant_id, deliverer_id, status, order_date) "
+                + "VALUES (2, 1, 1, NULL, 'PENDING', '2024-01-01 13:00:00')");
+        TestDatabase.execute("INSERT INTO order_items (order_id, product_id, quantity) VALUES (1, 1, 2)");
+        TestDatabase.execute("INSERT INTO order_items (order_id, product_id, quantity) VALUES (2, 1, 1)");
+
+        // backfill the rows above, then run the scripts again as if they had failed before being recorded
+        TestDatabase.execute("DELETE FROM schema_version WHERE version IN (3, 4)");
+        assertEquals(2, new SchemaMigrator(dbConnection).migrate());
+        TestDatabase.execute("DELETE FROM schema_version WHERE version IN (3, 4)");
+        assertEquals(2, new SchemaMigrator(dbConnection).migrate());
+
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_sales"));
+        assertEquals(2, count("SELECT order_count FROM daily_sales"));
+        assertEquals(1, count("SELECT delivered_count FROM daily_sales"));
+        assertEquals(1, count("SELECT COUNT(*) FROM deliverer_earnings"));
+        assertEquals(1, count("SELECT delivery_count FROM deliverer_balances WHERE deliverer_id = 7"));
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT total_earnings FROM deliverer_balances WHERE deliverer_id = 7")) {
+            assertTrue(rs.next());
+            assertEquals(0, new BigDecimal("2.00").compareTo(rs.getBigDecimal(1)));
+        }
+    }
+
+    private String password(int userId) {
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT password FROM users WHERE id = " + userId)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int count(String sql) {
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(sql, e);
+        }
+    }
+}
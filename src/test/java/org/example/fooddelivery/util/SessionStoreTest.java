@@ -0,0 +1,62 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+    private static final User ALICE = new User(1, "alice", "hash", User.UserRole.CLIENT);
+
+    @Test
+    void resolvesTokensToTheirUser() {
+        SessionStore sessions = new SessionStore(TimeUnit.MINUTES.toNanos(30));
+        String alice = sessions.create(ALICE);
+        String bob = sessions.create(new User(2, "bob", "hash", User.UserRole.DELIVERER));
+
+        assertNotEquals(alice, bob);
+        assertSame(ALICE, sessions.get(alice));
+        assertEquals("bob", sessions.get(bob).getUsername());
+        assertNull(sessions.get("no-such-token"));
+        assertNull(sessions.get(null));
+    }
+
+    @Test
+    void invalidatedTokensStopWorking() {
+        SessionStore sessions = new SessionStore(TimeUnit.MINUTES.toNanos(30));
+        String token = sessions.create(ALICE);
+
+        sessions.invalidate(token);
+        sessions.invalidate(null);
+
+        assertNull(sessions.get(token));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    void tokensExpireAfterTheTtl() throws InterruptedException {
+        SessionStore sessions = new SessionStore(TimeUnit.MILLISECONDS.toNanos(1));
+        String token = sessions.create(ALICE);
+        sessions.create(ALICE);
+
+        Thread.sleep(20);
+
+        assertNull(sessions.get(token));
+        assertEquals(1, sessions.size());
+        sessions.purgeExpired();
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    void useExtendsTheSession() throws InterruptedException {
+        SessionStore sessions = new SessionStore(TimeUnit.MILLISECONDS.toNanos(1500));
+        String token = sessions.create(ALICE);
+
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(750);
+            assertSame(ALICE, sessions.get(token), "expired after " + (i + 1) * 750 + " ms");
+        }
+    }
+}
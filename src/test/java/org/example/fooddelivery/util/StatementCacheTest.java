@@ -0,0 +1,110 @@
+package org.example.fooddelivery.util;
+
+import org.example.fooddelivery.config.AppConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+    private static final String SQL = "SELECT * FROM SYSTEM_RANGE(1, 5)";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("db.pool.minSize", "1");
+        System.setProperty("db.pool.maxSize", "1");
+        pool = new ConnectionPool(AppConfig.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        System.clearProperty("db.pool.minSize");
+        System.clearProperty("db.pool.maxSize");
+    }
+
+    @Test
+    void reusesAClosedStatementForTheSameSql() throws Exception {
+        try (Connection conn = pool.borrow()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                    assertEquals(5, countRows(stmt));
+                }
+            }
+        }
+
+        assertEquals(2, pool.getStats().statementCacheHits());
+        assertEquals(1, pool.getStats().statementCacheMisses());
+    }
+
+    @Test
+    void checkInRestoresRowLimitsFetchSizeAndTimeout() throws Exception {
+        try (Connection conn = pool.borrow()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                stmt.setMaxRows(2);
+                stmt.setFetchSize(1);
+                stmt.setQueryTimeout(7);
+                assertEquals(2, countRows(stmt));
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(SQL)) {
+                assertEquals(0, stmt.getMaxRows());
+                assertEquals(0, stmt.getQueryTimeout());
+                assertNotEquals(1, stmt.getFetchSize());
+                assertEquals(5, countRows(stmt));
+            }
+        }
+        assertEquals(1, pool.getStats().statementCacheHits());
+    }
+
+    @Test
+    void nestedUseGetsAnUncachedStatementThatStillReportsThePooledConnection() throws Exception {
+        try (Connection conn = pool.borrow();
+             PreparedStatement outer = conn.prepareStatement(SQL);
+             PreparedStatement inner = conn.prepareStatement(SQL)) {
+
+            assertSame(conn, outer.getConnection());
+            assertSame(conn, inner.getConnection());
+            assertEquals(5, countRows(inner));
+            assertEquals(5, countRows(outer));
+        }
+
+        try (Connection conn = pool.borrow();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            assertEquals(5, countRows(stmt));
+        }
+        assertEquals(1, pool.getStats().statementCacheHits());
+    }
+
+    @Test
+    void statementsLeftOpenAreCheckedInWithTheConnection() throws Exception {
+        PreparedStatement abandoned;
+        try (Connection conn = pool.borrow()) {
+            abandoned = conn.prepareStatement(SQL);
+            abandoned.executeQuery();
+        }
+        assertTrue(abandoned.isClosed());
+
+        try (Connection conn = pool.borrow();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            assertEquals(5, countRows(stmt));
+        }
+        assertEquals(1, pool.getStats().statementCacheHits());
+    }
+
+    private static int countRows(PreparedStatement stmt) throws Exception {
+        int rows = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
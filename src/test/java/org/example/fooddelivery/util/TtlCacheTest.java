@@ -0,0 +1,93 @@
+package org.example.fooddelivery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    @Test
+    void loadsOnceAndServesHitsUntilInvalidated() {
+        TtlCache<Integer, String> cache = new TtlCache<>("test", 10, 1, TimeUnit.HOURS);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        cache.invalidate(1);
+        assertEquals("v2", cache.get(1, key -> "v" + loads.incrementAndGet()));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        TtlCache<Integer, String> cache = new TtlCache<>("test", 10, 20, TimeUnit.MILLISECONDS);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "v" + loads.incrementAndGet());
+        Thread.sleep(40);
+
+        assertEquals("v2", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOverMaxSize() {
+        TtlCache<Integer, String> cache = new TtlCache<>("test", 2, 1, TimeUnit.HOURS);
+        cache.get(1, key -> "a");
+        cache.get(2, key -> "b");
+        cache.get(1, key -> "unused");
+        cache.get(3, key -> "c");
+
+        assertEquals("a", cache.get(1, key -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, key -> "reloaded"));
+    }
+
+    @Test
+    void nullValuesAreNotCached() {
+        TtlCache<Integer, String> cache = new TtlCache<>("test", 10, 1, TimeUnit.HOURS);
+        assertNull(cache.get(1, key -> null));
+        assertEquals("loaded", cache.get(1, key -> "loaded"));
+    }
+
+    @Test
+    void aLoadThatRacesAnInvalidationIsNotStored() throws Exception {
+        TtlCache<Integer, String> cache = new TtlCache<>("test", 10, 1, TimeUnit.HOURS);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slowRead = executor.submit(() -> cache.get(1, key -> {
+                loading.countDown();
+                await(invalidated);
+                return "stale";
+            }));
+            loading.await();
+            cache.invalidate(1);
+            invalidated.countDown();
+
+            assertEquals("stale", slowRead.get());
+            assertEquals("fresh", cache.get(1, key -> "fresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}